@@ -21,17 +21,20 @@ public class DataSeeder implements CommandLineRunner {
     private final CommentRepository commentRepository;
     private final PasswordEncoder passwordEncoder;
     private final TagRepository tagRepository;
+    private final UserStatsRepository userStatsRepository;
     private final Faker faker = new Faker();
 
     public DataSeeder(UserRepository userRepository,
                       PostRepository postRepository,
                       CommentRepository commentRepository,
                       TagRepository tagRepository,
+                      UserStatsRepository userStatsRepository,
                       PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.tagRepository = tagRepository;
+        this.userStatsRepository = userStatsRepository;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -55,6 +58,7 @@ public class DataSeeder implements CommandLineRunner {
                     .build();
 
             userRepository.save(admin);
+            userStatsRepository.seed(admin.getId());
             System.out.println("✅ Admin account created: admin@example.com (password: admin123)");
         } else {
             System.out.println("ℹ️ Admin account already exists.");
@@ -114,6 +118,9 @@ public class DataSeeder implements CommandLineRunner {
                     }).collect(Collectors.toList());
             commentRepository.saveAll(comments);
 
+            // the seeded rows bypass the counter updates, so compute user_stats from them
+            userStatsRepository.recompute(1, userStatsRepository.findMaxUserId());
+
             System.out.println("✅ Seeding complete: 1 admin, 10 users, 50 posts, 100 comments!");
         } else {
             System.out.println("ℹ️ Data already exists. Skipping seed.");
@@ -1,8 +1,10 @@
 package com.example.communityforum.api.controller;
 
+import com.example.communityforum.dto.CursorPageResponse;
 import com.example.communityforum.dto.PageResponse;
 import com.example.communityforum.dto.comment.CommentRequestDTO;
 import com.example.communityforum.dto.comment.CommentResponseDTO;
+import com.example.communityforum.dto.comment.CommentThreadDTO;
 import com.example.communityforum.persistence.entity.Comment;
 import com.example.communityforum.service.CommentService;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -62,6 +64,33 @@ public class CommentController {
         return ResponseEntity.ok(commentResponseDTO);
     }
 
+    // GET FULL COMMENT TREE OF A POST
+    @GetMapping("/post/{postId}/tree")
+    public ResponseEntity<List<CommentResponseDTO>> getCommentTree(@PathVariable Long postId) {
+        return ResponseEntity.ok(commentService.getCommentTree(postId));
+    }
+
+    // GET ROOT COMMENTS OF A POST, CURSOR-PAGED, WITH A PREVIEW OF EACH THREAD
+    @GetMapping("/post/{postId}/threads")
+    public ResponseEntity<CursorPageResponse<CommentThreadDTO>> getThreads(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int replies
+    ) {
+        return ResponseEntity.ok(commentService.getThreads(postId, cursor, size, replies));
+    }
+
+    // GET MORE REPLIES OF A THREAD
+    @GetMapping("/{rootId}/replies")
+    public ResponseEntity<CursorPageResponse<CommentResponseDTO>> getReplies(
+            @PathVariable Long rootId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(commentService.getReplies(rootId, cursor, size));
+    }
+
     // GET COMMENTS BY USER ID
     @GetMapping("/user/{userId}")
     public ResponseEntity<PageResponse<CommentResponseDTO>> getCommentsByUserId(
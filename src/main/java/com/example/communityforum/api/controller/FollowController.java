@@ -1,7 +1,8 @@
 package com.example.communityforum.api.controller;
 
+import com.example.communityforum.dto.CursorPageResponse;
+import com.example.communityforum.dto.user.FollowUserDTO;
 import com.example.communityforum.dto.user.UserResponseDTO;
-import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.security.SecurityUtils;
 import com.example.communityforum.service.FollowService;
 
@@ -25,24 +26,20 @@ public class FollowController {
 
     @PostMapping("/{followingId}")
     public ResponseEntity<String> followUser(@PathVariable Long followingId) {
-        User currentUser = securityUtils.getCurrentUser();
-        followService.followUser(currentUser.getId(), followingId);
+        followService.followUser(securityUtils.getCurrentUserId(), followingId);
         return ResponseEntity.ok("Followed successfully");
     }
 
     @DeleteMapping("/{followingId}")
     public ResponseEntity<String> unfollowUser(@PathVariable Long followingId) {
-        User currentUser = securityUtils.getCurrentUser();
-        followService.unfollowUser(currentUser.getId(), followingId);
+        followService.unfollowUser(securityUtils.getCurrentUserId(), followingId);
         return ResponseEntity.ok("Unfollowed successfully");
     }
 
     // toggle follow
     @PostMapping("/{followingId}/toggle")
     public ResponseEntity<Map<String, Object>> toggleFollow(@PathVariable Long followingId) {
-        User currentUser = securityUtils.getCurrentUser();
-
-        Map<String, Object> result = followService.toggleFollow(currentUser.getId(), followingId);
+        Map<String, Object> result = followService.toggleFollow(securityUtils.getCurrentUserId(), followingId);
 
         // result contains both followed and isFriend
         return ResponseEntity.ok(result);
@@ -50,9 +47,9 @@ public class FollowController {
 
     @GetMapping("/followers/{userId}")
     public ResponseEntity<List<UserResponseDTO>> getFollowers(@PathVariable Long userId) {
-        User currentUser = securityUtils.getCurrentUser();
-        if (!securityUtils.isAdmin() && !currentUser.getId().equals(userId)) {
-            userId = currentUser.getId();
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (!securityUtils.isAdmin() && !currentUserId.equals(userId)) {
+            userId = currentUserId;
         }
         return ResponseEntity.ok(
                 followService.getFollowers(userId)
@@ -61,11 +58,38 @@ public class FollowController {
                         .toList());
     }
 
+    // paginated lists, each entry flagged with whether the caller follows that account
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<CursorPageResponse<FollowUserDTO>> getFollowersPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (!securityUtils.isAdmin() && !currentUserId.equals(userId)) {
+            userId = currentUserId;
+        }
+        return ResponseEntity.ok(followService.getFollowersPage(userId, currentUserId, cursor, size));
+    }
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<CursorPageResponse<FollowUserDTO>> getFollowingPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (!securityUtils.isAdmin() && !currentUserId.equals(userId)) {
+            userId = currentUserId;
+        }
+        return ResponseEntity.ok(followService.getFollowingPage(userId, currentUserId, cursor, size));
+    }
+
     @GetMapping("/following/{userId}")
     public ResponseEntity<List<UserResponseDTO>> getFollowing(@PathVariable Long userId) {
-        User currentUser = securityUtils.getCurrentUser();
-        if (!securityUtils.isAdmin() && !currentUser.getId().equals(userId)) {
-            userId = currentUser.getId();
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (!securityUtils.isAdmin() && !currentUserId.equals(userId)) {
+            userId = currentUserId;
         }
         return ResponseEntity.ok(
                 followService.getFollowing(userId)
@@ -14,6 +14,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @Tag(name = "Likes", description = "Endpoints for managing forum likes")
 @RestController
 @RequestMapping("/api/likes")
@@ -32,4 +34,17 @@ public class LikeController {
         boolean liked = likeService.toggleLike(request);
         return liked ? "Liked successfully" : "Unliked successfully";
     }
+
+    // idempotent: liking twice is not an error, "changed" is false the second time
+    @PostMapping("/like")
+    public ResponseEntity<Map<String, Object>> like(@Valid @RequestBody LikeRequestDTO request) {
+        boolean changed = likeService.setLiked(request, true);
+        return ResponseEntity.ok(Map.of("liked", true, "changed", changed));
+    }
+
+    @PostMapping("/unlike")
+    public ResponseEntity<Map<String, Object>> unlike(@Valid @RequestBody LikeRequestDTO request) {
+        boolean changed = likeService.setLiked(request, false);
+        return ResponseEntity.ok(Map.of("liked", false, "changed", changed));
+    }
 }
@@ -1,6 +1,5 @@
 package com.example.communityforum.api.controller;
 
-import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.NotificationRepository;
 
 import com.example.communityforum.security.SecurityUtils;
@@ -27,11 +26,9 @@ public class NotificationController {
 
     @GetMapping("/{userId}")
     public List<Notification> getUserNotifications(@PathVariable Long userId) {
-        User currentUser = securityUtils.getCurrentUser();
-
         // If current user is not admin, override the userId with current user's ID
-        if (!currentUser.getRole().equals("ADMIN")) {
-            userId = currentUser.getId();
+        if (!securityUtils.isAdmin()) {
+            userId = securityUtils.getCurrentUserId();
         }
         return notificationRepository.findByReceiverIdOrderByCreatedAtDesc(userId);
     }
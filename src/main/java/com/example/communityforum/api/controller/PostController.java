@@ -1,6 +1,7 @@
 package com.example.communityforum.api.controller;
 
 
+import com.example.communityforum.dto.CursorPageResponse;
 import com.example.communityforum.dto.PageResponse;
 import com.example.communityforum.dto.post.PostDetailResponseDTO;
 import com.example.communityforum.dto.post.PostListResponseDTO;
@@ -74,6 +75,26 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
+    // Cursor-based feed for infinite scroll (no total count)
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageResponse<PostListResponseDTO>> getFeed(
+            @Parameter(description = "Opaque cursor from the previous page's nextCursor; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(postService.getFeed(cursor, size));
+    }
+
+    // Home feed of posts from followed users
+    @GetMapping("/following")
+    public ResponseEntity<CursorPageResponse<PostListResponseDTO>> getFollowingFeed(
+            @Parameter(description = "Opaque cursor from the previous page's nextCursor; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(postService.getFollowingFeed(cursor, size));
+    }
+
     //Get one post by id
     @GetMapping("/{id}")
     public ResponseEntity<PostDetailResponseDTO> getPostById(@PathVariable Long id) {
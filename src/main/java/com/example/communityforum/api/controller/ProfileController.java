@@ -1,6 +1,7 @@
 package com.example.communityforum.api.controller;
 
 import com.example.communityforum.dto.file.FileUploadResponseDTO;
+import com.example.communityforum.dto.user.ProfileOverviewDTO;
 import com.example.communityforum.dto.user.ProfileRequest;
 import com.example.communityforum.dto.user.ProfileResponseDTO;
 import com.example.communityforum.dto.user.ProfileStatsDTO;
@@ -72,8 +73,7 @@ public class ProfileController {
         if (avatar == null || avatar.isEmpty()) {
             throw new FileValidationException("File is empty");
         }
-        User current = securityUtils.getCurrentUser();
-        Long targetId = (userId != null && "ADMIN".equals(current.getRole())) ? userId : current.getId();
+        Long targetId = (userId != null && securityUtils.isAdmin()) ? userId : securityUtils.getCurrentUserId();
         log.debug("Uploading avatar for userId={}, originalName={}, size={}", targetId, avatar.getOriginalFilename(),
                 avatar.getSize());
         var resp = profileService.uploadAvatar(targetId, avatar);
@@ -82,8 +82,7 @@ public class ProfileController {
 
     @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProfileResponseDTO> updateProfile(@Valid @RequestBody ProfileRequest request) {
-        User currentUser = securityUtils.getCurrentUser();
-        return ResponseEntity.ok(profileService.updateProfile(currentUser.getId(), request));
+        return ResponseEntity.ok(profileService.updateProfile(securityUtils.getCurrentUserId(), request));
     }
 
     // multipart combined update (no ProfileRequest in signature)
@@ -99,6 +98,15 @@ public class ProfileController {
         return ResponseEntity.ok(profileService.updateProfile(currentUser.getId(), request, avatar));
     }
     
+    // Profile, follow flags, stats and first page of posts in one round trip
+    @GetMapping("/{username}/overview")
+    public ResponseEntity<ProfileOverviewDTO> getProfileOverview(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "10") int pageSize
+    ) {
+        return ResponseEntity.ok(profileService.getProfileOverview(username, pageSize));
+    }
+
     // Get profile statistics
     @GetMapping("/{id}/stats")
     public ResponseEntity<ProfileStatsDTO> getUserStats(@PathVariable long id) {
@@ -1,24 +1,218 @@
-// AsyncExecutorConfig.java
 package com.example.communityforum.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * One bounded executor per async workload, so a slow dependency only backs up its own queue:
+ * an SMTP outage fills the mail queue without delaying notification delivery.
+ * Sizes are configurable under {@code executors.<name>.*}; each pool exports the
+ * {@code executor.*} gauges (queued, active, pool size) plus an {@code executor.rejected}
+ * counter tagged with the overflow policy. Under virtual threads there is no pool or queue;
+ * {@code executor.active}, {@code executor.queued} (submitters waiting on the concurrency limit)
+ * and an {@code executor.throttled} counter take their place, except that a discarding executor
+ * still drops work past its limit and counts it in {@code executor.rejected}.
+ */
+@Slf4j
 @Configuration
 @EnableAsync
 public class AsyncExecutorConfig {
-    @Bean("appAsyncExecutor")
-    public Executor appAsyncExecutor() {
+
+    private enum Overflow {
+        // run on the submitting thread: slows the producer down, never loses work
+        CALLER_RUNS,
+        // drop the task and count it: for work that may be lost or re-requested
+        DISCARD
+    }
+
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+
+    // set by the virtual-threads profile (Java 21 only)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public AsyncExecutorConfig(Environment env, MeterRegistry meterRegistry) {
+        this.env = env;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // the single outbox drain task of OutboxDispatcher (it never submits a second one);
+    // kept apart from maintenance so queued fan-outs and rebuilds can't delay notifications
+    @Bean("notificationExecutor")
+    public Executor notificationExecutor() {
+        return executor("notification", 1, 1, 1, Overflow.CALLER_RUNS);
+    }
+
+    // SMTP can hang for the full socket timeout; a full queue drops mails instead of
+    // blocking request threads, and users can ask for a new code
+    @Bean("mailExecutor")
+    public Executor mailExecutor() {
+        return executor("mail", 2, 2, 100, Overflow.DISCARD);
+    }
+
+    // timeline fan-out and index rebuilds
+    @Bean("maintenanceExecutor")
+    public Executor maintenanceExecutor() {
+        return executor("maintenance", 2, 4, 200, Overflow.CALLER_RUNS);
+    }
+
+    // read fan-out for composite endpoints, one connection per thread; a full queue runs the task
+    // on the request thread instead of failing. Callers hold no connection while they wait (no
+    // open-in-view on these endpoints), so the budget is threads + running callers, see
+    // spring.datasource.hikari.maximum-pool-size
+    @Bean("profileQueryExecutor")
+    public Executor profileQueryExecutor() {
+        return executor("profile-query", 4, 4, 100, Overflow.CALLER_RUNS);
+    }
+
+    private Executor executor(String name, int coreSize, int maxSize, int queueCapacity, Overflow overflow) {
+        String prefix = "executors." + name + ".";
+        if (virtualThreads) {
+            int concurrencyLimit = env.getProperty(prefix + "concurrency-limit", Integer.class, maxSize);
+            return overflow == Overflow.DISCARD
+                    ? discardingVirtualThreadExecutor(name, concurrencyLimit)
+                    : virtualThreadExecutor(name, concurrencyLimit);
+        }
+
         ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
-        ex.setCorePoolSize(4);
-        ex.setMaxPoolSize(8);
-        ex.setQueueCapacity(200);
-        ex.setThreadNamePrefix("async-");
+        ex.setCorePoolSize(env.getProperty(prefix + "core-size", Integer.class, coreSize));
+        ex.setMaxPoolSize(env.getProperty(prefix + "max-size", Integer.class, maxSize));
+        ex.setQueueCapacity(env.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity));
+        ex.setThreadNamePrefix(name + "-");
+        ex.setRejectedExecutionHandler(countingRejections(name, overflow));
         ex.initialize();
+
+        new ExecutorServiceMetrics(ex.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
         return ex;
     }
-}
\ No newline at end of file
+
+    private Counter rejectedCounter(String name, Overflow overflow) {
+        return Counter.builder("executor.rejected")
+                .description("Tasks that did not fit in the executor queue")
+                .tags("name", name, "policy", overflow.name().toLowerCase().replace('_', '-'))
+                .register(meterRegistry);
+    }
+
+    private RejectedExecutionHandler countingRejections(String name, Overflow overflow) {
+        Counter rejected = rejectedCounter(name, overflow);
+        RejectedExecutionHandler delegate = overflow == Overflow.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.DiscardPolicy();
+
+        return (task, pool) -> {
+            rejected.increment();
+            if (overflow == Overflow.DISCARD) {
+                log.warn("Executor '{}' is saturated ({} queued), task dropped", name, pool.getQueue().size());
+            }
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+
+    // one virtual thread per task; the concurrency limit makes submitters wait instead of
+    // rejecting, and keeps blocking DB/SMTP work from outrunning the connection pool
+    private Executor virtualThreadExecutor(String name, int concurrencyLimit) {
+        AtomicInteger active = activeGauge(name);
+        AtomicInteger waiting = new AtomicInteger();
+        Counter throttled = Counter.builder("executor.throttled")
+                .description("Submissions that found the concurrency limit reached and had to wait")
+                .tags("name", name)
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", waiting, AtomicInteger::get)
+                .description("Submitters waiting for a free slot under the concurrency limit")
+                .tags("name", name)
+                .register(meterRegistry);
+
+        // execute(Runnable, long) is where execute() and submit() both pass the throttle
+        SimpleAsyncTaskExecutor ex = new SimpleAsyncTaskExecutor(name + "-") {
+            @Override
+            @SuppressWarnings("deprecation")
+            public void execute(Runnable task, long startTimeout) {
+                if (active.get() >= concurrencyLimit) throttled.increment();
+                waiting.incrementAndGet();
+                try {
+                    super.execute(task, startTimeout);
+                } finally {
+                    waiting.decrementAndGet();
+                }
+            }
+        };
+        ex.setVirtualThreads(true);
+        ex.setConcurrencyLimit(concurrencyLimit);
+        ex.setTaskDecorator(countingActive(active));
+        return ex;
+    }
+
+    // the virtual-thread counterpart of DISCARD: a task that finds every permit taken is
+    // dropped and counted instead of parking the submitter (a request thread, for mail)
+    private Executor discardingVirtualThreadExecutor(String name, int concurrencyLimit) {
+        AtomicInteger active = activeGauge(name);
+        Counter rejected = rejectedCounter(name, Overflow.DISCARD);
+        Semaphore permits = new Semaphore(concurrencyLimit);
+
+        SimpleAsyncTaskExecutor ex = new SimpleAsyncTaskExecutor(name + "-") {
+            @Override
+            @SuppressWarnings("deprecation")
+            public void execute(Runnable task, long startTimeout) {
+                if (!permits.tryAcquire()) {
+                    rejected.increment();
+                    log.warn("Executor '{}' is at its concurrency limit ({}), task dropped", name, concurrencyLimit);
+                    return;
+                }
+                try {
+                    super.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            permits.release();
+                        }
+                    }, startTimeout);
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        };
+        ex.setVirtualThreads(true);
+        ex.setTaskDecorator(countingActive(active));
+        return ex;
+    }
+
+    private AtomicInteger activeGauge(String name) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("executor.active", active, AtomicInteger::get)
+                .description("Tasks currently running")
+                .tags("name", name)
+                .register(meterRegistry);
+        return active;
+    }
+
+    private static TaskDecorator countingActive(AtomicInteger active) {
+        return task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+    }
+}
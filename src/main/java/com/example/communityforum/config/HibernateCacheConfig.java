@@ -0,0 +1,76 @@
+package com.example.communityforum.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * In-process (Caffeine JCache) regions for the Hibernate second-level and query caches.
+ * Region names match the {@code @Cache(region = ...)} declarations on the entities.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final String USERS = "users";
+    private static final String POSTS = "posts";
+    private static final String POST_TAGS = "posts.tags";
+    private static final String TAGS = "tags";
+
+    // Hibernate's default region names for query results and table timestamps
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Value("${cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${cache.posts.max-size:5000}")
+    private long postsMaxSize;
+
+    @Value("${cache.tags.max-size:2000}")
+    private long tagsMaxSize;
+
+    @Value("${cache.query.max-size:5000}")
+    private long queryMaxSize;
+
+    @Value("${cache.entity.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        createRegion(cacheManager, USERS, usersMaxSize, true);
+        createRegion(cacheManager, POSTS, postsMaxSize, true);
+        createRegion(cacheManager, POST_TAGS, postsMaxSize, true);
+        createRegion(cacheManager, TAGS, tagsMaxSize, true);
+        createRegion(cacheManager, QUERY_RESULTS, queryMaxSize, true);
+        // timestamps must outlive every cached query result, so no size or time bound here
+        createRegion(cacheManager, UPDATE_TIMESTAMPS, 0, false);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long maxSize, boolean bounded) {
+        if (cacheManager.getCache(name) != null) return;
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        if (bounded) {
+            config.setMaximumSize(OptionalLong.of(maxSize));
+            config.setExpireAfterWrite(OptionalLong.of(Duration.ofMinutes(ttlMinutes).toNanos()));
+        }
+        config.setStatisticsEnabled(true);
+        cacheManager.createCache(name, config);
+    }
+}
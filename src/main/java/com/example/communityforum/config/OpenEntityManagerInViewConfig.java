@@ -0,0 +1,35 @@
+package com.example.communityforum.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-entity-manager-in-view for every endpoint except those that fan out to
+ * {@code profileQueryExecutor}. The view's entity manager holds its JDBC connection until
+ * the request ends, so a request thread blocked on pool tasks would keep one connection
+ * while each task needs another. Replaces Boot's interceptor ({@code spring.jpa.open-in-view=false}).
+ */
+@Configuration
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    // absent in web-slice tests, which load MVC config without JPA
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public OpenEntityManagerInViewConfig(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        entityManagerFactory.ifAvailable(emf -> {
+            OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+            interceptor.setEntityManagerFactory(emf);
+            registry.addWebRequestInterceptor(interceptor)
+                    .excludePathPatterns("/api/profile/*/overview");
+        });
+    }
+}
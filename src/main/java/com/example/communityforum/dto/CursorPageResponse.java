@@ -0,0 +1,17 @@
+package com.example.communityforum.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor; // null when there is no next page
+    private boolean hasNext;
+}
@@ -16,6 +16,10 @@ public class CommentResponseDTO {
     private String authorUsername;
     private String authorFullname;
     private long postId;
+    private Long parentCommentId;
+    private int depth;
+    private long likeCount;
+    private boolean liked; // whether the current user liked it
     private LocalDateTime createdAt;
     private List<CommentResponseDTO> replies; // Recursive for nested replies
 
@@ -0,0 +1,16 @@
+package com.example.communityforum.dto.comment;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+// a root comment with a preview of its thread; more replies are paged via repliesNextCursor
+@Data
+@Builder
+public class CommentThreadDTO {
+    private CommentResponseDTO comment;
+    private List<CommentResponseDTO> replies;
+    private long replyCount;
+    private String repliesNextCursor; // null when the preview already holds every reply
+}
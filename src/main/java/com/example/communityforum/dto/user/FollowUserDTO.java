@@ -0,0 +1,25 @@
+package com.example.communityforum.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FollowUserDTO {
+    private Long id;
+    private String username;
+    private String fullname;
+
+    @JsonProperty("avatar_path")
+    private String avatar_path;
+
+    private LocalDateTime followedAt;
+    private boolean followedByMe; // whether the current user follows this account
+}
@@ -0,0 +1,16 @@
+package com.example.communityforum.dto.user;
+
+import com.example.communityforum.dto.post.PostSummaryDTO;
+import lombok.*;
+
+import java.util.List;
+
+// everything a profile screen needs, returned by one request
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ProfileOverviewDTO {
+    private ProfileResponseDTO profile;
+    private ProfileStatsDTO stats;
+    private List<PostSummaryDTO> posts; // first page, newest first
+    private int pageSize;
+    private long totalPosts;
+}
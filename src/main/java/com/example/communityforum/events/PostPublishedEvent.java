@@ -0,0 +1,16 @@
+package com.example.communityforum.events;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostPublishedEvent {
+    private Long postId;
+    private Long authorId;
+    private LocalDateTime createdAt;
+}
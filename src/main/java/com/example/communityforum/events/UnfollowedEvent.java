@@ -0,0 +1,14 @@
+package com.example.communityforum.events;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnfollowedEvent {
+    Long followerId;  // who unfollowed
+    Long followingId;  // who got unfollowed
+}
@@ -8,7 +8,7 @@ public class ResourceNotFoundException extends RuntimeException {
     }
 
     public ResourceNotFoundException(String resourceName, String name) {
-        super(String.format("%s not found with id: %d", resourceName, name));
+        super(String.format("%s not found with name: %s", resourceName, name));
     }
 
     public ResourceNotFoundException(String message) {
@@ -0,0 +1,270 @@
+package com.example.communityforum.graph;
+
+import com.example.communityforum.events.NewFollowerEvent;
+import com.example.communityforum.events.UnfollowedEvent;
+import com.example.communityforum.persistence.repository.FollowRepository;
+import com.example.communityforum.persistence.repository.projection.FollowEdgeProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process adjacency index of follow edges: each user's followed ids as a sorted long[],
+ * plus follower counts, so follows/is-friend/follower-count checks skip the database.
+ * Loaded in the background after startup and rebuilt periodically; local follow/unfollow
+ * events are applied after commit. Changes made on another node only show up after the
+ * next rebuild, so write paths keep deciding from the database.
+ * Until the index is loaded, or when the graph outgrows the edge budget, lookups return
+ * empty and callers fall back to their queries.
+ */
+@Slf4j
+@Component
+public class SocialGraphIndex {
+
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+    private static final long[] NONE = new long[0];
+
+    // one immutable-per-key snapshot; rebuilds swap in a whole new one
+    private record Graph(Map<Long, long[]> following, Map<Long, Integer> followerCounts) {}
+
+    private record Change(long followerId, long followingId, boolean follow) {}
+
+    private final FollowRepository followRepository;
+    private final Executor executor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object writeLock = new Object();
+
+    private volatile Graph graph; // null until loaded or while over budget
+    private List<Change> changesDuringRebuild; // guarded by writeLock
+    private long edgeCount; // guarded by writeLock
+
+    @Value("${social-graph.enabled:true}")
+    private boolean enabled = true;
+
+    // ~8 bytes per edge in the arrays, plus per-user map overhead
+    @Value("${social-graph.max-edges:10000000}")
+    private long maxEdges = 10_000_000;
+
+    public SocialGraphIndex(FollowRepository followRepository,
+                            @Qualifier("maintenanceExecutor") Executor executor) {
+        this.followRepository = followRepository;
+        this.executor = executor;
+    }
+
+    public boolean isReady() {
+        return graph != null;
+    }
+
+    // Whether followerId follows followingId, empty when the index can't answer
+    public Optional<Boolean> follows(Long followerId, Long followingId) {
+        Graph current = graph;
+        if (current == null) return Optional.empty();
+        return Optional.of(contains(current, followerId, followingId));
+    }
+
+    // Whether both users follow each other, empty when the index can't answer
+    public Optional<Boolean> isFriend(Long userId, Long otherId) {
+        Graph current = graph;
+        if (current == null) return Optional.empty();
+        return Optional.of(contains(current, userId, otherId) && contains(current, otherId, userId));
+    }
+
+    public OptionalLong followerCount(Long userId) {
+        Graph current = graph;
+        if (current == null) return OptionalLong.empty();
+        return OptionalLong.of(current.followerCounts().getOrDefault(userId, 0));
+    }
+
+    // Which of the given users followerId follows, empty when the index can't answer
+    public Optional<Set<Long>> followedAmong(Long followerId, Collection<Long> userIds) {
+        Graph current = graph;
+        if (current == null) return Optional.empty();
+        long[] followed = current.following().getOrDefault(followerId, NONE);
+        Set<Long> result = new HashSet<>();
+        for (Long userId : userIds) {
+            if (Arrays.binarySearch(followed, userId) >= 0) {
+                result.add(userId);
+            }
+        }
+        return Optional.of(result);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowed(NewFollowerEvent event) {
+        apply(new Change(event.getFollowerId(), event.getFollowingId(), true));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnfollowed(UnfollowedEvent event) {
+        apply(new Change(event.getFollowerId(), event.getFollowingId(), false));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        requestRebuild();
+    }
+
+    // picks up follows made on other nodes; runs off the scheduler thread
+    @Scheduled(initialDelayString = "${social-graph.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${social-graph.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        requestRebuild();
+    }
+
+    private void requestRebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Social graph rebuild failed", e);
+                synchronized (writeLock) {
+                    changesDuringRebuild = null;
+                }
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (writeLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, LongList> building = new HashMap<>();
+        long loaded = 0;
+        long afterId = 0;
+        while (true) {
+            List<FollowEdgeProjection> chunk = followRepository.findEdgesAfter(afterId, Limit.of(LOAD_CHUNK_SIZE));
+            for (FollowEdgeProjection edge : chunk) {
+                building.computeIfAbsent(edge.getFollowerId(), id -> new LongList()).add(edge.getFollowingId());
+            }
+            loaded += chunk.size();
+            if (loaded > maxEdges) {
+                log.warn("Social graph has more than {} edges, index disabled", maxEdges);
+                synchronized (writeLock) {
+                    changesDuringRebuild = null;
+                    graph = null;
+                }
+                return;
+            }
+            if (chunk.size() < LOAD_CHUNK_SIZE) break;
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+
+        Map<Long, long[]> following = new ConcurrentHashMap<>(building.size());
+        Map<Long, Integer> followerCounts = new ConcurrentHashMap<>();
+        long edges = 0;
+        for (Map.Entry<Long, LongList> entry : building.entrySet()) {
+            long[] ids = entry.getValue().toSortedArray();
+            following.put(entry.getKey(), ids);
+            for (long id : ids) {
+                followerCounts.merge(id, 1, Integer::sum);
+            }
+            edges += ids.length;
+        }
+        Graph rebuilt = new Graph(following, followerCounts);
+
+        synchronized (writeLock) {
+            // replay follows that committed while the snapshot was being read; set operations are idempotent
+            edgeCount = edges;
+            for (Change change : changesDuringRebuild) {
+                applyTo(rebuilt, change);
+            }
+            changesDuringRebuild = null;
+            graph = rebuilt;
+        }
+        log.info("Social graph loaded: {} users, {} edges in {} ms",
+                following.size(), edges, System.currentTimeMillis() - started);
+    }
+
+    private void apply(Change change) {
+        synchronized (writeLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            Graph current = graph;
+            if (current != null) {
+                applyTo(current, change);
+                if (edgeCount > maxEdges) {
+                    log.warn("Social graph grew past {} edges, index disabled", maxEdges);
+                    graph = null;
+                }
+            }
+        }
+    }
+
+    // copy-on-write update of one user's array; caller holds writeLock
+    private void applyTo(Graph target, Change change) {
+        long[] current = target.following().getOrDefault(change.followerId(), NONE);
+        int pos = Arrays.binarySearch(current, change.followingId());
+
+        if (change.follow() && pos < 0) {
+            int insertAt = -pos - 1;
+            long[] next = new long[current.length + 1];
+            System.arraycopy(current, 0, next, 0, insertAt);
+            next[insertAt] = change.followingId();
+            System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+            target.following().put(change.followerId(), next);
+            target.followerCounts().merge(change.followingId(), 1, Integer::sum);
+            edgeCount++;
+        } else if (!change.follow() && pos >= 0) {
+            long[] next = new long[current.length - 1];
+            System.arraycopy(current, 0, next, 0, pos);
+            System.arraycopy(current, pos + 1, next, pos, current.length - pos - 1);
+            if (next.length == 0) {
+                target.following().remove(change.followerId());
+            } else {
+                target.following().put(change.followerId(), next);
+            }
+            target.followerCounts().computeIfPresent(change.followingId(), (id, count) -> count > 1 ? count - 1 : null);
+            edgeCount--;
+        }
+    }
+
+    private static boolean contains(Graph graph, Long followerId, Long followingId) {
+        return Arrays.binarySearch(graph.following().getOrDefault(followerId, NONE), followingId) >= 0;
+    }
+
+    // growable primitive list used only while loading
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.communityforum.jobs;
+
+import com.example.communityforum.persistence.repository.CommentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills comments.depth/root_id for replies written before the columns existed,
+ * one tree level per pass. One-shot like counters.backfill-on-startup: set
+ * {@code comments.backfill-tree-on-startup} only for the deploy that adds the columns.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentTreeBackfill {
+    private final CommentRepository commentRepository;
+
+    @Value("${comments.backfill-tree-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (!backfillOnStartup) return;
+        int total = 0;
+        int updated;
+        while ((updated = commentRepository.backfillTreeLevel()) > 0) {
+            total += updated;
+        }
+        if (total > 0) {
+            log.info("Backfilled depth/root_id for {} replies", total);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.communityforum.jobs;
+
+import com.example.communityforum.persistence.repository.CommentRepository;
+import com.example.communityforum.persistence.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs drift in the denormalized like/comment counters on posts and comments.
+ * Runs in id-range chunks so each UPDATE only locks a bounded slice of rows.
+ * The startup backfill for rows that predate the counter columns is a one-shot migration:
+ * it only runs when {@code counters.backfill-on-startup} is set, for the deploy that adds the columns.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterReconciliationTask {
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final UserStatsReconciliationTask userStatsReconciliationTask;
+
+    @Value("${counters.reconcile.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${counters.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) return;
+        log.info("counters.backfill-on-startup is set, reconciling now instead of waiting for the nightly run");
+        reconcile();
+        // user_stats rows seeded in the meantime summed the zeros
+        userStatsReconciliationTask.reconcile();
+    }
+
+    @Scheduled(cron = "${counters.reconcile.cron:0 30 3 * * *}") // 03:30 nightly
+    public void reconcile() {
+        long postsFixed = 0;
+        long maxPostId = postRepository.findMaxId();
+        for (long from = 1; from <= maxPostId; from += chunkSize) {
+            postsFixed += postRepository.reconcileCounters(from, from + chunkSize - 1);
+        }
+
+        long commentsFixed = 0;
+        long maxCommentId = commentRepository.findMaxId();
+        for (long from = 1; from <= maxCommentId; from += chunkSize) {
+            commentsFixed += commentRepository.reconcileLikeCounters(from, from + chunkSize - 1);
+        }
+
+        log.info("Counter reconciliation: posts fixed={}, comments fixed={}", postsFixed, commentsFixed);
+    }
+}
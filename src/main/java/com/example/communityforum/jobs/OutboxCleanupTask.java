@@ -0,0 +1,31 @@
+package com.example.communityforum.jobs;
+
+import com.example.communityforum.persistence.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// dead outbox rows (out of delivery attempts) are kept for inspection, then purged
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxCleanupTask {
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.dead-retention-days:14}")
+    private int retentionDays;
+
+    @Scheduled(cron = "0 45 2 * * *") // 02:45 nightly
+    public void purgeDeadEvents() {
+        var cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long deleted = outboxEventRepository.deleteDeadCreatedBefore(maxAttempts, cutoff);
+        log.info("Deleted {} dead outbox events older than {} days", deleted, retentionDays);
+    }
+}
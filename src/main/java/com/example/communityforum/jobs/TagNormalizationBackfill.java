@@ -0,0 +1,29 @@
+package com.example.communityforum.jobs;
+
+import com.example.communityforum.persistence.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills tags.normalized_name for rows written before the column existed;
+ * a no-op once every row has it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagNormalizationBackfill {
+    private final TagRepository tagRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int updated = tagRepository.backfillNormalizedNames();
+        if (updated > 0) {
+            log.info("Backfilled normalized_name for {} tags", updated);
+        }
+    }
+}
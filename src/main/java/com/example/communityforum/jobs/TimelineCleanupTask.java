@@ -0,0 +1,27 @@
+package com.example.communityforum.jobs;
+
+import com.example.communityforum.persistence.repository.TimelineRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimelineCleanupTask {
+    private final TimelineRepository timelineRepository;
+
+    @Value("${timeline.retention-days:90}")
+    private int retentionDays;
+
+    @Scheduled(cron = "0 15 2 * * *") // 02:15 nightly
+    public void purgeOldEntries() {
+        var cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long deleted = timelineRepository.deleteByCreatedAtBefore(cutoff);
+        log.info("Deleted {} timeline entries older than {} days", deleted, retentionDays);
+    }
+}
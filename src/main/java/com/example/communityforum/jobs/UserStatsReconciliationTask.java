@@ -0,0 +1,33 @@
+package com.example.communityforum.jobs;
+
+import com.example.communityforum.persistence.repository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the user_stats counters from follows/posts, repairing any drift
+ * from the incremental updates and seeding rows for users that have none yet.
+ * Runs after CounterReconciliationTask so received likes build on repaired post counters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatsReconciliationTask {
+    private final UserStatsRepository userStatsRepository;
+
+    @Value("${user-stats.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${user-stats.reconcile.cron:0 0 4 * * *}") // 04:00 nightly
+    public void reconcile() {
+        long rows = 0;
+        long maxUserId = userStatsRepository.findMaxUserId();
+        for (long from = 1; from <= maxUserId; from += chunkSize) {
+            rows += userStatsRepository.recompute(from, from + chunkSize - 1);
+        }
+        log.info("User stats reconciliation: rows affected={}", rows);
+    }
+}
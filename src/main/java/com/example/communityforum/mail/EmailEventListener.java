@@ -13,7 +13,7 @@ import org.springframework.transaction.event.TransactionPhase;
 public class EmailEventListener {
     private final EmailService emailService;
 
-    @Async("appAsyncExecutor")
+    @Async("mailExecutor")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onVerificationRequested(VerificationRequested e) {
         emailService.sendHtml(e.to(), e.subject(), e.body());
@@ -16,7 +16,7 @@ public class EmailService {
         this.mailSender = mailSender;
     }
     
-    @Async("appAsyncExecutor")
+    @Async("mailExecutor")
     public void send(String to, String subject, String body) {
         SimpleMailMessage msg = new SimpleMailMessage();
         msg.setTo(to);
@@ -25,7 +25,7 @@ public class EmailService {
         mailSender.send(msg);
     }
 
-    @Async("appAsyncExecutor")
+    @Async("mailExecutor")
     public void sendHtml(String to, String subject, String html) {
         try {
             MimeMessage msg = mailSender.createMimeMessage();
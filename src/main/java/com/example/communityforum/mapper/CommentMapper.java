@@ -4,10 +4,16 @@ import com.example.communityforum.dto.comment.CommentResponseDTO;
 import com.example.communityforum.persistence.entity.Comment;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 public class CommentMapper {
 
     public CommentResponseDTO toResponseDTO(Comment comment) {
+        return toResponseDTO(comment, Set.of());
+    }
+
+    public CommentResponseDTO toResponseDTO(Comment comment, Set<Long> likedCommentIds) {
         if (comment == null) return null;
 
         return CommentResponseDTO.builder()
@@ -23,6 +29,12 @@ public class CommentMapper {
                 .postId(
                         comment.getPost() != null ? comment.getPost().getId() : null
                 )
+                .parentCommentId(
+                        comment.getParentComment() != null ? comment.getParentComment().getId() : null
+                )
+                .depth(comment.getDepth())
+                .likeCount(comment.getLikeCount())
+                .liked(likedCommentIds.contains(comment.getId()))
                 .build();
     }
 }
@@ -7,22 +7,29 @@ import com.example.communityforum.persistence.entity.Post;
 import com.example.communityforum.persistence.entity.Tag;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.LikeRepository;
+import com.example.communityforum.persistence.repository.projection.PostListProjection;
+import com.example.communityforum.service.LikeWriteBuffer;
 
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Component;
 
 @Component
 public class PostMapper {
+    // must match the substring length in PostRepository's list projections
+    public static final int EXCERPT_LENGTH = 100;
+
     private final LikeRepository likeRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
 
-    public PostMapper(LikeRepository likeRepository) {
+    public PostMapper(LikeRepository likeRepository, LikeWriteBuffer likeWriteBuffer) {
         this.likeRepository = likeRepository;
+        this.likeWriteBuffer = likeWriteBuffer;
     }
 
-    public PostListResponseDTO toListDTO(Post post, User currentUser, Map<Long,Long> likeCountMap, Map<Long, Long> commentCountMap) {
-        boolean liked = currentUser != null && likeRepository.existsByUserAndPost(currentUser, post);
+    public PostListResponseDTO toListDTO(Post post, Set<Long> likedPostIds) {
+        boolean liked = likedPostIds.contains(post.getId());
 
         // Get author safely
         User author = post.getUser();
@@ -48,15 +55,31 @@ public class PostMapper {
                 .slug(post.getSlug())
                 .createdAt(post.getCreatedAt())
                 .author(authorDTO) //  embedded author info
-                .likeCount(likeCountMap.getOrDefault(post.getId(), 0L))
-                .commentCount(commentCountMap.getOrDefault(post.getId(), 0L))
+                .likeCount(post.getLikeCount() + likeWriteBuffer.pendingDelta(post.getId()))
+                .commentCount(post.getCommentCount())
                 .liked(liked)
                 .build();
     }
 
-    public PostDetailResponseDTO toDetailDTO(Post post, User currentUser) {
-        long likeCount = likeRepository.countByPostId(post.getId());
-        boolean liked = currentUser != null && likeRepository.existsByUserAndPost(currentUser, post);
+    public PostListResponseDTO toListDTO(PostListProjection post, List<String> tags, boolean liked) {
+        return PostListResponseDTO.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .excerpt(toExcerpt(post))
+                .tags(tags)
+                .slug(post.getSlug())
+                .createdAt(post.getCreatedAt())
+                .author(new AuthorDTO(post.getAuthorId(), post.getAuthorUsername(), post.getAuthorAvatarPath()))
+                .likeCount(post.getLikeCount() + likeWriteBuffer.pendingDelta(post.getId()))
+                .commentCount(post.getCommentCount())
+                .liked(liked)
+                .build();
+    }
+
+    // currentUserId is null for anonymous viewers
+    public PostDetailResponseDTO toDetailDTO(Post post, Long currentUserId) {
+        boolean liked = currentUserId != null && likeWriteBuffer.pendingState(currentUserId, post.getId())
+                .orElseGet(() -> likeRepository.existsByUserIdAndPostId(currentUserId, post.getId()));
 
         User user = post.getUser();
 
@@ -77,30 +100,29 @@ public class PostMapper {
                         .username(user.getUsername())
                         .avatar_path(user.getAvatarPath())
                         .build() : null)
-                .likeCount(likeCount)
+                .likeCount(post.getLikeCount() + likeWriteBuffer.pendingDelta(post.getId()))
                 .liked(liked)
                 .build();
 
 
     }
 
-    public PostSummaryDTO mapToPostSummaryDTO(Post post, Map<Long, Long> likeCountMap, Map<Long, Long> commentCountMap) {
+    public PostSummaryDTO toSummaryDTO(PostListProjection post, List<String> tags) {
         return PostSummaryDTO.builder()
                 .id(post.getId())
                 .title(post.getTitle())
-                .excerpt(post.getContent().length() > 100
-                        ? post.getContent().substring(0, 100) + "..."
-                        : post.getContent())
-                .tags(post.getTags() != null
-                        ? post.getTags()
-                        .stream()
-                        .map(Tag::getName)   // extract only tag name
-                        .toList()
-                        : List.of())
+                .excerpt(toExcerpt(post))
+                .tags(tags)
                 .slug(post.getSlug())
                 .createdAt(post.getCreatedAt().toString())
-                .likeCount(likeCountMap.getOrDefault(post.getId(), 0L))
-                .commentCount(commentCountMap.getOrDefault(post.getId(), 0L))
+                .likeCount(post.getLikeCount() + likeWriteBuffer.pendingDelta(post.getId()))
+                .commentCount(post.getCommentCount())
                 .build();
     }
+
+    private String toExcerpt(PostListProjection post) {
+        if (post.getExcerpt() == null) return "";
+        Integer length = post.getContentLength();
+        return length != null && length > EXCERPT_LENGTH ? post.getExcerpt() + "..." : post.getExcerpt();
+    }
 }
@@ -0,0 +1,170 @@
+package com.example.communityforum.outbox;
+
+import com.example.communityforum.events.CommentCreatedEvent;
+import com.example.communityforum.events.LikeToggledEvent;
+import com.example.communityforum.events.NewFollowerEvent;
+import com.example.communityforum.notification.NotificationEventListener;
+import com.example.communityforum.persistence.entity.OutboxEvent;
+import com.example.communityforum.persistence.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the outbox table and hands committed events to the notification handlers in batches.
+ * Each event is handled and deleted in one transaction under a SKIP LOCKED row lock, so it is
+ * delivered at least once across nodes and crashes; a failed delivery is retried with a
+ * growing backoff until {@code outbox.max-attempts}, then left in the table as a dead row until
+ * {@link com.example.communityforum.jobs.OutboxCleanupTask} purges it.
+ * Metrics: {@code outbox.lag} (commit to delivery), {@code outbox.oldest.age}, {@code outbox.dead},
+ * {@code outbox.dispatched} and {@code outbox.failed}.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationEventListener notifications;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final Timer lag;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final AtomicLong deadCount = new AtomicLong();
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs = 5000;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            NotificationEventListener notifications,
+                            @Qualifier("notificationExecutor") Executor executor,
+                            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.notifications = notifications;
+        this.executor = executor;
+        this.lag = Timer.builder("outbox.lag")
+                .description("Time from event commit to delivery")
+                .register(meterRegistry);
+        this.dispatched = meterRegistry.counter("outbox.dispatched");
+        this.failed = meterRegistry.counter("outbox.failed");
+        Gauge.builder("outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest deliverable event at the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("outbox.dead", deadCount, AtomicLong::get)
+                .description("Events that ran out of delivery attempts, at the last poll")
+                .register(meterRegistry);
+    }
+
+    // the drain runs on the notification executor so a long nightly job can't hold it up
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!draining.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            try {
+                drain();
+            } catch (Exception e) {
+                log.error("Outbox dispatch failed", e);
+            } finally {
+                draining.set(false);
+            }
+        });
+    }
+
+    // delivers batches until the backlog is empty or only holds rows locked by another node
+    void drain() {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = outboxEventRepository.findDeliverable(now, maxAttempts, Limit.of(batchSize));
+            oldestAgeSeconds.set(batch.isEmpty() ? 0 : Duration.between(batch.get(0).getCreatedAt(), now).toSeconds());
+
+            int delivered = 0;
+            for (OutboxEvent event : batch) {
+                if (deliver(event)) delivered++;
+            }
+            if (batch.size() < batchSize || delivered == 0) break;
+        }
+        deadCount.set(outboxEventRepository.countDead(maxAttempts));
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        try {
+            Boolean delivered = transactionTemplate.execute(status -> {
+                // empty when another node is delivering it, already has, or failed it since the read
+                if (outboxEventRepository.lockForDelivery(event.getId(), LocalDateTime.now(), maxAttempts).isEmpty()) {
+                    return false;
+                }
+                handle(event);
+                outboxEventRepository.deleteById(event.getId());
+                return true;
+            });
+            if (!Boolean.TRUE.equals(delivered)) return false;
+            lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            dispatched.increment();
+            return true;
+        } catch (Exception e) {
+            failed.increment();
+            int attempts = event.getAttempts() + 1;
+            LocalDateTime retryAt = LocalDateTime.now().plus(Duration.ofMillis(retryBackoffMs * attempts));
+            outboxEventRepository.recordFailure(event.getId(), retryAt, truncate(e.toString()));
+            if (attempts >= maxAttempts) {
+                log.error("Outbox event {} ({}) failed {} times, giving up", event.getId(), event.getEventType(), attempts, e);
+            } else {
+                log.warn("Outbox event {} ({}) failed, retrying at {}", event.getId(), event.getEventType(), retryAt, e);
+            }
+            return false;
+        }
+    }
+
+    private void handle(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case "CommentCreatedEvent" -> notifications.handleCommentCreated(read(event, CommentCreatedEvent.class));
+            case "LikeToggledEvent" -> notifications.handleLikeToggled(read(event, LikeToggledEvent.class));
+            case "NewFollowerEvent" -> notifications.handleNewFollower(read(event, NewFollowerEvent.class));
+            default -> throw new IllegalStateException("Unknown outbox event type: " + event.getEventType());
+        }
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox event " + event.getId(), e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.communityforum.outbox;
+
+import com.example.communityforum.persistence.entity.OutboxEvent;
+import com.example.communityforum.persistence.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records domain events in the outbox table. Must be called inside the transaction that makes
+ * the change, so the event is committed or rolled back together with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Object event) {
+        publishAll(List.of(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(Collection<?> events) {
+        if (events.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = events.stream()
+                .map(event -> OutboxEvent.builder()
+                        .eventType(event.getClass().getSimpleName())
+                        .payload(toJson(event))
+                        .createdAt(now)
+                        .availableAt(now)
+                        .build())
+                .toList();
+        outboxEventRepository.saveAll(rows);
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.communityforum.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts single second-level cache entries changed by native updates,
+ * which Hibernate can't attribute to a specific entity.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Evict now and again after commit, so a concurrent load can't re-cache the pre-commit row
+    public void evict(Class<?> entityType, Object id) {
+        entityManagerFactory.getCache().evict(entityType, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityManagerFactory.getCache().evict(entityType, id);
+                }
+            });
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.SQLDelete;
@@ -16,7 +17,10 @@ import org.hibernate.annotations.Where;
         name = "comments",
         indexes = {
                 @Index(name = "idx_comments_deleted_at", columnList = "deleted_at"),
-                @Index(name = "idx_comments_deleted_by", columnList =  "deleted_by")
+                @Index(name = "idx_comments_deleted_by", columnList =  "deleted_by"),
+                @Index(name = "idx_comments_post_depth", columnList = "post_id, depth"),
+                // a thread's live replies in id order, and its deleted comments
+                @Index(name = "idx_comments_root_deleted", columnList = "root_id, deleted_at")
         }
 )
 @Where(clause = "deleted_at IS NULL")
@@ -45,15 +49,29 @@ public class Comment {
     private Post post;
 
     //parent comment for replies
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name= "parent_comment_id")
     @JsonIgnore
     private Comment parentComment;
 
+    // 1 for top-level comments; stored so replies don't walk their ancestors
+    @Column(name = "depth", nullable = false)
+    @ColumnDefault("1")
+    private int depth;
+
+    // id of the top-level comment of the thread, null for top-level comments
+    @Column(name = "root_id")
+    private Long rootId;
+
     //children replies for parent
     @OneToMany(mappedBy = "parentComment",cascade = CascadeType.ALL,orphanRemoval = true)
     private List<Comment> replies;
 
+    // denormalized like counter, only changed through atomic repository updates
+    @Column(name = "like_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long likeCount;
+
     //for soft delete
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
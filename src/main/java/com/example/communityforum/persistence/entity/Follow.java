@@ -6,7 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "follows", uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "following_id"}))
+@Table(name = "follows",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "following_id"}),
+        indexes = {
+                @Index(name = "idx_follows_following_id", columnList = "following_id, id"),
+                @Index(name = "idx_follows_follower_id", columnList = "follower_id, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,46 @@
+package com.example.communityforum.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Domain event written in the same transaction as the change that caused it;
+// OutboxDispatcher delivers it after commit and deletes the row
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_available", columnList = "available_at, id")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // simple class name of the event, e.g. CommentCreatedEvent
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    // event serialized as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // failed deliveries are retried after a backoff
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
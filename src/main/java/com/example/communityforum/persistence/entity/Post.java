@@ -8,6 +8,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.SQLDelete;
@@ -19,10 +23,13 @@ import org.hibernate.annotations.Where;
         indexes = {
                 @Index(name = "idx_posts_deleted_at", columnList = "deleted_at"),
                 @Index(name = "idx_posts_deleted_by", columnList = "deleted_by"),
-                @Index(name = "idx_posts_slug", columnList = "slug")
+                @Index(name = "idx_posts_slug", columnList = "slug"),
+                @Index(name = "idx_posts_created_at_id", columnList = "created_at, id")
         }
 )
 @Where(clause = "deleted_at IS NULL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,9 +59,14 @@ public class Post {
     @JsonIgnore
     private List<Comment> comments;
 
-    public long getCommentCount() {
-        return comments != null ? comments.size() : 0;
-    }
+    // denormalized counters, only changed through atomic repository updates
+    @Column(name = "like_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long likeCount;
+
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long commentCount;
 
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
@@ -65,6 +77,8 @@ public class Post {
     private User deletedBy;
 
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts.tags")
+    @BatchSize(size = 50) // one query loads the tags of a whole page
     @JoinTable(
             name = "post_tags",
             joinColumns = @JoinColumn(name = "post_id"),
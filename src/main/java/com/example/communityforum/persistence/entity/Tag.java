@@ -4,12 +4,17 @@ package com.example.communityforum.persistence.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
 @Table(name = "tags")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tags")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Tag {
     @Id
@@ -19,6 +24,10 @@ public class Tag {
     @Column(unique = true, nullable = false, length = 50)
     private String name;
 
+    // trimmed lowercase name used for lookups; unique so concurrent creators collapse to one row
+    @Column(name = "normalized_name", unique = true, length = 50)
+    private String normalizedName;
+
     @ManyToMany(mappedBy = "tags", fetch = FetchType.LAZY)
     @JsonIgnore
     private Set<Post> posts = new HashSet<>();
@@ -27,4 +36,14 @@ public class Tag {
     public Tag(String name) {
         this.name = name;
     }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        this.normalizedName = normalize(name);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 }
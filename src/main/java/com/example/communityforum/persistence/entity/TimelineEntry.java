@@ -0,0 +1,49 @@
+package com.example.communityforum.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+// Materialized home-timeline row: "post X belongs in owner Y's following feed"
+@Entity
+@Table(
+        name = "timeline_entries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"owner_id", "post_id"}),
+        indexes = {
+                @Index(name = "idx_timeline_owner_created", columnList = "owner_id, created_at, post_id"),
+                @Index(name = "idx_timeline_owner_author", columnList = "owner_id, author_id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // follower whose feed this row belongs to
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    // post author, kept so an unfollow can drop that author's rows
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // copy of the post's createdAt so the feed can be read from this table alone
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,6 +3,9 @@ package com.example.communityforum.persistence.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,6 +17,8 @@ import java.util.Set;
 @Table(name = "users", indexes = {
                 @Index(name = "idx_user_avatar_path", columnList = "avatar_path")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,6 +59,16 @@ public class User {
         @Column(name = "email_verified_at")
         private LocalDateTime emailVerifiedAt;
 
+        // bumped to revoke every JWT issued before the change (e.g. password reset)
+        @Column(name = "token_version", nullable = false)
+        @ColumnDefault("0")
+        private int tokenVersion;
+
+        // too many followers to fan posts out on write; followers read this author's posts on demand
+        @Column(name = "high_fanout", nullable = false)
+        @ColumnDefault("false")
+        private boolean highFanout;
+
         @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
         @JsonIgnore
         private List<Post> posts;
@@ -0,0 +1,42 @@
+package com.example.communityforum.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Per-user counters for the profile stats endpoint, kept up to date by the follow/post/like
+// write paths and recomputed nightly by UserStatsReconciliationTask
+@Entity
+@Table(name = "user_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "following_count", nullable = false)
+    private long followingCount;
+
+    @Column(name = "follower_count", nullable = false)
+    private long followerCount;
+
+    // posts that are not soft-deleted
+    @Column(name = "post_count", nullable = false)
+    private long postCount;
+
+    // likes on the user's posts
+    @Column(name = "received_like_count", nullable = false)
+    private long receivedLikeCount;
+}
@@ -3,12 +3,20 @@ package com.example.communityforum.persistence.repository;
 
 import com.example.communityforum.persistence.entity.Comment;
 import com.example.communityforum.persistence.entity.Post;
+import com.example.communityforum.persistence.repository.projection.ReplyCountProjection;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -19,6 +27,95 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // to find top-level (root) comment
     List<Comment> findByPostAndParentCommentIsNull(Post post);
 
+    // whole thread of a post in one query, assembled into a tree by the caller
+    @Query("""
+        select c from Comment c join fetch c.user
+        where c.post.id = :postId and c.depth <= :maxDepth
+        order by c.createdAt asc, c.id asc
+        """)
+    List<Comment> findThreadByPostId(@Param("postId") Long postId, @Param("maxDepth") int maxDepth);
+
+    // keyset pages of a post's top-level comments, oldest first (ids follow insertion order)
+    @Query("select c from Comment c join fetch c.user where c.post.id = :postId and c.depth = 1 order by c.id asc")
+    List<Comment> findRootsFirstPage(@Param("postId") Long postId, Limit limit);
+
+    @Query("""
+        select c from Comment c join fetch c.user
+        where c.post.id = :postId and c.depth = 1 and c.id > :afterId
+        order by c.id asc
+        """)
+    List<Comment> findRootsAfter(@Param("postId") Long postId, @Param("afterId") Long afterId, Limit limit);
+
+    // ids of the first :perRoot visible replies of each thread; "hidden" walks down from the
+    // soft-deleted comments, whose live replies are hidden with them (same rule as getReplies)
+    @Query(value = """
+        WITH RECURSIVE hidden (id) AS (
+            SELECT c.id FROM comments c WHERE c.root_id IN (:rootIds) AND c.deleted_at IS NOT NULL
+            UNION ALL
+            SELECT c.id FROM comments c JOIN hidden h ON c.parent_comment_id = h.id
+             WHERE c.deleted_at IS NULL
+        )
+        SELECT r.id FROM (
+            SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.root_id ORDER BY c.id) AS rn
+              FROM comments c
+             WHERE c.root_id IN (:rootIds) AND c.deleted_at IS NULL
+               AND c.id NOT IN (SELECT h.id FROM hidden h)
+        ) r
+        WHERE r.rn <= :perRoot
+        """, nativeQuery = true)
+    List<Long> findFirstReplyIds(@Param("rootIds") Collection<Long> rootIds, @Param("perRoot") int perRoot);
+
+    @Query("select c from Comment c join fetch c.user where c.id in :ids order by c.id asc")
+    List<Comment> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    // visible replies per thread, counted with the same rule as findFirstReplyIds
+    @Query(value = """
+        WITH RECURSIVE hidden (id) AS (
+            SELECT c.id FROM comments c WHERE c.root_id IN (:rootIds) AND c.deleted_at IS NOT NULL
+            UNION ALL
+            SELECT c.id FROM comments c JOIN hidden h ON c.parent_comment_id = h.id
+             WHERE c.deleted_at IS NULL
+        )
+        SELECT c.root_id AS rootId, COUNT(*) AS replyCount
+          FROM comments c
+         WHERE c.root_id IN (:rootIds) AND c.deleted_at IS NULL
+           AND c.id NOT IN (SELECT h.id FROM hidden h)
+         GROUP BY c.root_id
+        """, nativeQuery = true)
+    List<ReplyCountProjection> countRepliesByRootIds(@Param("rootIds") Collection<Long> rootIds);
+
+    // keyset pages of one thread's reply ids, read in id order from idx_comments_root_deleted;
+    // only the subtrees of soft-deleted comments are walked, so a page costs O(page + hidden)
+    @Query(value = """
+        WITH RECURSIVE hidden (id) AS (
+            SELECT c.id FROM comments c WHERE c.root_id = :rootId AND c.deleted_at IS NOT NULL
+            UNION ALL
+            SELECT c.id FROM comments c JOIN hidden h ON c.parent_comment_id = h.id
+             WHERE c.deleted_at IS NULL
+        )
+        SELECT c.id FROM comments c
+         WHERE c.root_id = :rootId AND c.deleted_at IS NULL AND c.id > :afterId
+           AND c.id NOT IN (SELECT h.id FROM hidden h)
+         ORDER BY c.id
+         LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findVisibleReplyIdsAfter(@Param("rootId") Long rootId,
+                                        @Param("afterId") Long afterId,
+                                        @Param("limit") int limit);
+
+    // fills depth/root_id one tree level per call for rows written before the columns existed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = """
+        UPDATE comments c
+          JOIN comments p ON p.id = c.parent_comment_id
+           SET c.depth = p.depth + 1,
+               c.root_id = COALESCE(p.root_id, p.id)
+         WHERE c.root_id IS NULL
+           AND (p.parent_comment_id IS NULL OR p.root_id IS NOT NULL)
+        """, nativeQuery = true)
+    int backfillTreeLevel();
+
     // Replies for a specific comment
     List<Comment> findByParentCommentId(Long parentCommentId);
 
@@ -26,4 +123,24 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
     List<Object[]> countCommentsByPostIds(@Param("postIds") List<Long> postIds);
+
+    // atomic counter update, applied in the same transaction as the like write
+    @Modifying
+    @Query("update Comment c set c.likeCount = c.likeCount + :delta where c.id = :commentId")
+    int incrementLikeCount(@Param("commentId") Long commentId, @Param("delta") long delta);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM comments", nativeQuery = true)
+    long findMaxId();
+
+    // recompute like counters for an id range, touching only rows that drifted
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = """
+        UPDATE comments c
+           SET c.like_count = (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id)
+         WHERE c.id BETWEEN :fromId AND :toId
+           AND c.like_count <> (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id)
+        """, nativeQuery = true)
+    int reconcileLikeCounters(@Param("fromId") long fromId, @Param("toId") long toId);
 }
\ No newline at end of file
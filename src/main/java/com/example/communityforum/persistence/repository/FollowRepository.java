@@ -2,14 +2,24 @@ package com.example.communityforum.persistence.repository;
 
 import com.example.communityforum.persistence.entity.Follow;
 import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.projection.FollowEdgeProjection;
+import com.example.communityforum.persistence.repository.projection.FollowListProjection;
 
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface FollowRepository extends JpaRepository<Follow, Long> {
@@ -20,7 +30,96 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     @Transactional
     void deleteByFollowerAndFollowing(User follower, User following);
 
+    // id-only follow/unfollow in one statement; the affected row count says whether anything changed,
+    // and a concurrent duplicate follow is ignored instead of failing on the unique constraint
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "follows"))
+    @Query(value = "INSERT IGNORE INTO follows (follower_id, following_id, created_at) VALUES (:followerId, :followingId, NOW(6))",
+            nativeQuery = true)
+    int insertFollow(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "follows"))
+    @Query(value = "DELETE FROM follows WHERE follower_id = :followerId AND following_id = :followingId", nativeQuery = true)
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    // follower ids of the follow edges between two users, in either direction (at most two rows)
+    @Query("""
+        select f.follower.id from Follow f
+        where (f.follower.id = :userId and f.following.id = :otherId)
+           or (f.follower.id = :otherId and f.following.id = :userId)
+        """)
+    List<Long> findFollowDirections(@Param("userId") Long userId, @Param("otherId") Long otherId);
+
+    // all follow edges in id order, read in chunks by the in-memory social graph
+    @Query("""
+        select f.id as id, f.follower.id as followerId, f.following.id as followingId
+        from Follow f
+        where f.id > :afterId
+        order by f.id
+        """)
+    List<FollowEdgeProjection> findEdgesAfter(@Param("afterId") Long afterId, Limit limit);
+
     List<Follow> findByFollower(User follower);
     List<Follow> findByFollowing(User following);
 
+    long countByFollowing_Id(Long followingId);
+
+    // follower ids of a user in id order, read in chunks by the high-fanout backfill
+    @Query("""
+        select f.follower.id from Follow f
+        where f.following.id = :followingId and f.follower.id > :afterId
+        order by f.follower.id
+        """)
+    List<Long> findFollowerIdsAfter(@Param("followingId") Long followingId, @Param("afterId") Long afterId, Limit limit);
+
+    // followed accounts whose posts are not fanned out and must be read on demand
+    @Query("select f.following.id from Follow f where f.follower.id = :followerId and f.following.highFanout = true")
+    List<Long> findHighFanoutFollowingIds(@Param("followerId") Long followerId);
+
+    // follower/following pages, newest follow first, keyset-paged by follow id
+    @Query("""
+        select f.id as followId, f.createdAt as followedAt, u.id as userId,
+               u.username as username, u.fullname as fullname, u.avatarPath as avatarPath
+        from Follow f join f.follower u
+        where f.following.id = :userId
+        order by f.id desc
+        """)
+    List<FollowListProjection> findFollowersFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+        select f.id as followId, f.createdAt as followedAt, u.id as userId,
+               u.username as username, u.fullname as fullname, u.avatarPath as avatarPath
+        from Follow f join f.follower u
+        where f.following.id = :userId and f.id < :beforeId
+        order by f.id desc
+        """)
+    List<FollowListProjection> findFollowersBefore(@Param("userId") Long userId,
+                                                   @Param("beforeId") Long beforeId,
+                                                   Limit limit);
+
+    @Query("""
+        select f.id as followId, f.createdAt as followedAt, u.id as userId,
+               u.username as username, u.fullname as fullname, u.avatarPath as avatarPath
+        from Follow f join f.following u
+        where f.follower.id = :userId
+        order by f.id desc
+        """)
+    List<FollowListProjection> findFollowingFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+        select f.id as followId, f.createdAt as followedAt, u.id as userId,
+               u.username as username, u.fullname as fullname, u.avatarPath as avatarPath
+        from Follow f join f.following u
+        where f.follower.id = :userId and f.id < :beforeId
+        order by f.id desc
+        """)
+    List<FollowListProjection> findFollowingBefore(@Param("userId") Long userId,
+                                                   @Param("beforeId") Long beforeId,
+                                                   Limit limit);
+
+    // which of the given users the follower follows, resolved in one query
+    @Query("select f.following.id from Follow f where f.follower.id = :followerId and f.following.id in :userIds")
+    Set<Long> findFollowedIdsAmong(@Param("followerId") Long followerId, @Param("userIds") Collection<Long> userIds);
+
 }
@@ -1,22 +1,34 @@
 package com.example.communityforum.persistence.repository;
 
 import com.example.communityforum.persistence.entity.*;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
 
     boolean existsByUserAndPost(User user, Post post);
     boolean existsByUserAndComment(User user, Comment comment);
+    boolean existsByUserIdAndPostId(Long userId, Long postId);
 
     void deleteByUserAndPost(User user, Post post);
     void deleteByUserAndComment(User user, Comment comment);
 
+    // likes of a post being hard-deleted; likes.post_id has no ON DELETE CASCADE
+    @Modifying
+    @Query("delete from Like l where l.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
     long countByPost(Post post);
     long countByComment(Comment comment);
 
@@ -26,6 +38,27 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     @Query("SELECT l.post.id, COUNT(l) FROM Like l WHERE l.post.id IN :postIds GROUP BY l.post.id")
     List<Object[]> countLikesByPostIds(@Param("postIds") List<Long> postIds);
 
+    // Which of the given posts the user has liked, resolved in one query
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    Set<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") List<Long> postIds);
+
     // For comment likes
     long countByCommentId(Long commentId);
+
+    // Which of the given comments the user has liked, resolved in one query
+    @Query("SELECT l.comment.id FROM Like l WHERE l.user.id = :userId AND l.comment.id IN :commentIds")
+    Set<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
+    // single-statement like/unlike; the affected row count says whether anything changed,
+    // and a concurrent duplicate is ignored instead of failing on the unique constraint
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(value = "INSERT IGNORE INTO likes (user_id, comment_id, created_at) VALUES (:userId, :commentId, NOW(6))",
+            nativeQuery = true)
+    int insertCommentLike(@Param("userId") Long userId, @Param("commentId") Long commentId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(value = "DELETE FROM likes WHERE user_id = :userId AND comment_id = :commentId", nativeQuery = true)
+    int deleteCommentLike(@Param("userId") Long userId, @Param("commentId") Long commentId);
 }
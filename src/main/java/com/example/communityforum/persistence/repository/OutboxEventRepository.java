@@ -0,0 +1,61 @@
+package com.example.communityforum.persistence.repository;
+
+import com.example.communityforum.persistence.entity.OutboxEvent;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // oldest deliverable events first; rows past maxAttempts stay behind for inspection
+    @Query("""
+        select e from OutboxEvent e
+         where e.availableAt <= :now and e.attempts < :maxAttempts
+         order by e.id
+        """)
+    List<OutboxEvent> findDeliverable(@Param("now") LocalDateTime now,
+                                      @Param("maxAttempts") int maxAttempts,
+                                      Limit limit);
+
+    // row lock for the delivering transaction; another node already holding it gets nothing back,
+    // and so does a row another node failed (and pushed back) since it was read
+    @Query(value = """
+        SELECT id FROM outbox_events
+         WHERE id = :id AND available_at <= :now AND attempts < :maxAttempts
+           FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    Optional<Long> lockForDelivery(@Param("id") Long id,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("maxAttempts") int maxAttempts);
+
+    // dead rows: delivery gave up after maxAttempts
+    @Query("select count(e) from OutboxEvent e where e.attempts >= :maxAttempts")
+    long countDead(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("delete from OutboxEvent e where e.attempts >= :maxAttempts and e.createdAt < :cutoff")
+    int deleteDeadCreatedBefore(@Param("maxAttempts") int maxAttempts, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("""
+        update OutboxEvent e
+           set e.attempts = e.attempts + 1, e.availableAt = :retryAt, e.lastError = :error
+         where e.id = :id
+        """)
+    int recordFailure(@Param("id") Long id,
+                      @Param("retryAt") LocalDateTime retryAt,
+                      @Param("error") String error);
+}
@@ -1,38 +1,148 @@
 package com.example.communityforum.persistence.repository;
 
 import com.example.communityforum.persistence.entity.Post;
-import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.projection.PostListProjection;
+import com.example.communityforum.persistence.repository.projection.PostTagProjection;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    Page<Post> findAllByUser_Id(Long userId, Pageable pageable);
+    // timeline pages load posts by id with the author in the same select; tags are
+    // batch-loaded (@BatchSize on Post.tags) rather than fetch-joined
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Post> findAllById(Iterable<Long> ids);
+
+    // projections for list pages; the excerpt length matches PostMapper.EXCERPT_LENGTH
+    @Query(value = """
+        select p.id as id, p.title as title, substring(p.content, 1, 100) as excerpt,
+               length(p.content) as contentLength, p.slug as slug, p.createdAt as createdAt,
+               p.likeCount as likeCount, p.commentCount as commentCount,
+               u.id as authorId, u.username as authorUsername, u.avatarPath as authorAvatarPath
+        from Post p join p.user u
+        """,
+        countQuery = "select count(p) from Post p")
+    Page<PostListProjection> findListPage(Pageable pageable);
+
+    @Query(value = """
+        select p.id as id, p.title as title, substring(p.content, 1, 100) as excerpt,
+               length(p.content) as contentLength, p.slug as slug, p.createdAt as createdAt,
+               p.likeCount as likeCount, p.commentCount as commentCount,
+               u.id as authorId, u.username as authorUsername, u.avatarPath as authorAvatarPath
+        from Post p join p.user u
+        where u.id = :userId
+        """,
+        countQuery = "select count(p) from Post p where p.user.id = :userId")
+    Page<PostListProjection> findListPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select p.id as postId, t.name as name from Post p join p.tags t where p.id in :postIds")
+    List<PostTagProjection> findTagNamesByPostIds(@Param("postIds") Collection<Long> postIds);
 
     Optional<Post> findBySlug(String slug);
 
     @Query("select p from Post p where p.id = :id and p.deletedAt is null")
     Optional<Post> findByIdAndNotDeleted(@Param("id") Long id);
 
-    @Query("select p from Post p where p.deletedAt is null order by p.createdAt desc")
-    Page<Post> findAllNotDeleted(Pageable pageable);
+    // findById may be served from the second-level cache, which skips the @Where clause
+    default Optional<Post> findActiveById(Long id) {
+        return findById(id).filter(post -> post.getDeletedAt() == null);
+    }
 
     @Query(value = "SELECT * FROM posts WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
     Optional<Post> findDeletedById(@Param("id") Long id);
 
-    // find post by user that current user is following
-    @Query("SELECT p FROM Post p WHERE p.user IN :followingUsers ORDER BY p.createdAt DESC")
-    List<Post> findPostsByFollowing(@Param("followingUsers") List<User> followingUsers);
-
     boolean existsBySlug(String slug);
 
+    // -1 when the slug is free, 0 when only the bare slug is taken, otherwise the highest numeric "-n" suffix.
+    // Only 1-9 digit suffixes count, so a title ending in a huge number can't overflow the next suffix.
+    // Native so soft-deleted posts (which still hold their slug) are counted.
+    @Query(value = """
+        SELECT COALESCE(MAX(CASE WHEN slug = :base THEN 0
+                                 ELSE CAST(SUBSTRING(slug, CHAR_LENGTH(:base) + 2) AS DECIMAL(9)) END), -1)
+          FROM posts
+         WHERE slug = :base
+            OR (slug LIKE CONCAT(:base, '-%') AND SUBSTRING(slug, CHAR_LENGTH(:base) + 2) REGEXP '^[1-9][0-9]{0,8}$')
+        """, nativeQuery = true)
+    long findMaxSlugSuffix(@Param("base") String base);
+
+    // keyset feed on (createdAt, id): no offset scan and no count query
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p order by p.createdAt desc, p.id desc")
+    List<Post> findFeedFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+        select p from Post p
+        where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+        order by p.createdAt desc, p.id desc
+        """)
+    List<Post> findFeedAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // same keyset ordering restricted to a set of authors (fan-out-on-read part of the following feed)
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.user.id in :authorIds order by p.createdAt desc, p.id desc")
+    List<Post> findByAuthorsFirstPage(@Param("authorIds") List<Long> authorIds, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+        select p from Post p
+        where p.user.id in :authorIds
+          and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+        order by p.createdAt desc, p.id desc
+        """)
+    List<Post> findByAuthorsAfter(@Param("authorIds") List<Long> authorIds,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Limit limit);
+
+    // atomic counter updates, applied in the same transaction as the like/comment write.
+    // The query space matches no entity so Hibernate doesn't drop the whole posts cache region;
+    // callers evict the single post through EntityCacheEvictor instead.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_counters"))
+    @Query(value = "UPDATE posts SET like_count = like_count + :delta WHERE id = :postId", nativeQuery = true)
+    int incrementLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_counters"))
+    @Query(value = "UPDATE posts SET comment_count = comment_count + :delta WHERE id = :postId", nativeQuery = true)
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM posts", nativeQuery = true)
+    long findMaxId();
+
+    // recompute counters for an id range, touching only rows that drifted
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts"))
+    @Query(value = """
+        UPDATE posts p
+           SET p.like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id),
+               p.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.deleted_at IS NULL)
+         WHERE p.id BETWEEN :fromId AND :toId
+           AND (p.like_count <> (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id)
+             OR p.comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.deleted_at IS NULL))
+        """, nativeQuery = true)
+    int reconcileCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+
 }
\ No newline at end of file
@@ -1,11 +1,33 @@
 package com.example.communityforum.persistence.repository;
 
 import com.example.communityforum.persistence.entity.Tag;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {
-    Optional<Tag> findByNameIgnoreCase(String name);
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
     Optional<Tag> findByName(String name);
+
+    List<Tag> findByNormalizedNameIn(Collection<String> normalizedNames);
+
+    // locking read: sees rows committed by concurrent creators after our snapshot was taken
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t from Tag t where t.normalizedName in :normalizedNames")
+    List<Tag> findForShareByNormalizedNameIn(@Param("normalizedNames") Collection<String> normalizedNames);
+
+    // fill normalized_name for rows created before the column existed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tags"))
+    @Query(value = "UPDATE tags SET normalized_name = LOWER(TRIM(name)) WHERE normalized_name IS NULL", nativeQuery = true)
+    int backfillNormalizedNames();
 }
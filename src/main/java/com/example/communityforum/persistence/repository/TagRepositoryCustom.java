@@ -0,0 +1,9 @@
+package com.example.communityforum.persistence.repository;
+
+import java.util.Map;
+
+public interface TagRepositoryCustom {
+
+    // multi-row insert keyed by normalized name; rows that already exist are left untouched
+    int insertIgnoringExisting(Map<String, String> namesByNormalizedName);
+}
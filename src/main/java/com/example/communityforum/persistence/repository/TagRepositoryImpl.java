@@ -0,0 +1,40 @@
+package com.example.communityforum.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+public class TagRepositoryImpl implements TagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int insertIgnoringExisting(Map<String, String> namesByNormalizedName) {
+        if (namesByNormalizedName.isEmpty()) return 0;
+
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < namesByNormalizedName.size(); i++) {
+            values.add("(?" + (2 * i + 1) + ", ?" + (2 * i + 2) + ")");
+        }
+        // no-op update instead of INSERT IGNORE so only duplicate keys are swallowed
+        Query query = entityManager.createNativeQuery(
+                "INSERT INTO tags (name, normalized_name) VALUES " + values
+                        + " ON DUPLICATE KEY UPDATE id = id");
+        // keeps cached tag queries in step with the insert
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace("tags");
+
+        int position = 1;
+        for (Map.Entry<String, String> entry : namesByNormalizedName.entrySet()) {
+            query.setParameter(position++, entry.getValue());
+            query.setParameter(position++, entry.getKey());
+        }
+        return query.executeUpdate();
+    }
+}
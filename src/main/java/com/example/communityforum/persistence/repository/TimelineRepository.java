@@ -0,0 +1,107 @@
+package com.example.communityforum.persistence.repository;
+
+import com.example.communityforum.persistence.entity.TimelineEntry;
+
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineRepository extends JpaRepository<TimelineEntry, Long> {
+
+    // push a new post into every follower's timeline with a single statement; a no-op once the post is soft-deleted
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = """
+        INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at)
+        SELECT f.follower_id, :postId, :authorId, :createdAt
+          FROM follows f
+         WHERE f.following_id = :authorId
+           AND EXISTS (SELECT 1 FROM posts p WHERE p.id = :postId AND p.deleted_at IS NULL)
+        """, nativeQuery = true)
+    int fanOut(@Param("postId") Long postId,
+               @Param("authorId") Long authorId,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    // seed a new follower's timeline with the author's most recent posts (skipped for high-fanout authors);
+    // runs after the follow commits, so it is a no-op if the follow has been undone in the meantime
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = """
+        INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at)
+        SELECT :ownerId, p.id, p.user_id, p.created_at
+          FROM posts p
+          JOIN users u ON u.id = p.user_id AND u.high_fanout = FALSE
+         WHERE p.user_id = :authorId AND p.deleted_at IS NULL
+           AND EXISTS (SELECT 1 FROM follows f WHERE f.follower_id = :ownerId AND f.following_id = :authorId)
+         ORDER BY p.created_at DESC
+         LIMIT :limit
+        """, nativeQuery = true)
+    int backfill(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // an author dropped out of high-fanout mode: give the followers in [fromId, toId] the recent posts
+    // that were pulled at read time until now and never fanned out; one transaction per chunk
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = """
+        INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at)
+        SELECT f.follower_id, p.id, p.user_id, p.created_at
+          FROM follows f
+          JOIN (SELECT id, user_id, created_at
+                  FROM posts
+                 WHERE user_id = :authorId AND deleted_at IS NULL
+                 ORDER BY created_at DESC
+                 LIMIT :limit) p ON TRUE
+         WHERE f.following_id = :authorId AND f.follower_id BETWEEN :fromId AND :toId
+        """, nativeQuery = true)
+    int backfillFollowers(@Param("authorId") Long authorId,
+                          @Param("fromId") Long fromId,
+                          @Param("toId") Long toId,
+                          @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.owner.id = :ownerId and t.authorId = :authorId")
+    int deleteByOwnerAndAuthor(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("delete from TimelineEntry t where t.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // rows of soft-deleted posts are skipped here, so a page is never cut short by them
+    @Query("""
+        select t.post.id from TimelineEntry t join t.post p
+        where t.owner.id = :ownerId and p.deletedAt is null
+        order by t.createdAt desc, t.post.id desc
+        """)
+    List<Long> findPostIdsFirstPage(@Param("ownerId") Long ownerId, Limit limit);
+
+    @Query("""
+        select t.post.id from TimelineEntry t join t.post p
+        where t.owner.id = :ownerId and p.deletedAt is null
+          and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.post.id < :postId))
+        order by t.createdAt desc, t.post.id desc
+        """)
+    List<Long> findPostIdsAfter(@Param("ownerId") Long ownerId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("postId") Long postId,
+                                Limit limit);
+}
@@ -1,10 +1,15 @@
 package com.example.communityforum.persistence.repository;
 
 import com.example.communityforum.persistence.entity.User;
-import com.example.communityforum.persistence.repository.projection.ProfileCountsProjection;
+import com.example.communityforum.persistence.repository.projection.TokenStateProjection;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
@@ -12,6 +17,9 @@ import java.util.Optional;
 public interface UserRepository  extends JpaRepository<User, Long>
 {
     Optional<User> findByEmail(String email);
+
+    // cached query; invalidated by Hibernate whenever the users table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
     
     boolean existsByEmail(String email);
@@ -20,16 +28,15 @@ public interface UserRepository  extends JpaRepository<User, Long>
 
     boolean existsByUsernameIgnoreCase(String username);
 
-    // Get counts for profile statistics
-    @Query(value = """
-        SELECT
-          (SELECT COUNT(*) FROM follows f WHERE f.follower_id = :userId)  AS followingCount,
-          (SELECT COUNT(*) FROM follows f WHERE f.following_id = :userId) AS followerCount,
-          (SELECT COUNT(*) FROM posts   p WHERE p.user_id = :userId AND p.deleted_at IS NULL) AS postCount,
-          (SELECT COUNT(*)
-             FROM likes l
-             JOIN posts p ON p.id = l.post_id
-            WHERE p.user_id = :userId) AS postLikeCount
-        """, nativeQuery = true)
-    ProfileCountsProjection getProfileCounts(@Param("userId") Long userId);
+    @Modifying
+    @Transactional
+    @Query("update User u set u.highFanout = :highFanout where u.id = :userId")
+    int updateHighFanout(@Param("userId") Long userId, @Param("highFanout") boolean highFanout);
+
+    // Minimal columns needed to validate a stateless JWT
+    @Query("select u.username as username, u.tokenVersion as tokenVersion, u.emailVerified as emailVerified, " +
+            "u.role as role " +
+            "from User u where u.id = :userId")
+    Optional<TokenStateProjection> findTokenStateById(@Param("userId") Long userId);
+
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.communityforum.persistence.repository;
+
+import com.example.communityforum.persistence.entity.UserStats;
+import com.example.communityforum.persistence.repository.projection.UserStatsProjection;
+
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+// Rows are seeded with zeros when a user is created, and for users that predate the table by the
+// nightly recompute. Incremental updates only touch existing rows, so they never build on a partial count.
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // both sides of a follow edge in one statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = """
+        UPDATE user_stats
+           SET following_count = following_count + CASE WHEN user_id = :followerId THEN :delta ELSE 0 END,
+               follower_count = follower_count + CASE WHEN user_id = :followingId THEN :delta ELSE 0 END
+         WHERE user_id IN (:followerId, :followingId)
+        """, nativeQuery = true)
+    int adjustFollowCounts(@Param("followerId") Long followerId,
+                           @Param("followingId") Long followingId,
+                           @Param("delta") long delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = """
+        UPDATE user_stats
+           SET post_count = post_count + :postDelta,
+               received_like_count = received_like_count + :likeDelta
+         WHERE user_id = :userId
+        """, nativeQuery = true)
+    int adjustPostCounts(@Param("userId") Long userId,
+                         @Param("postDelta") long postDelta,
+                         @Param("likeDelta") long likeDelta);
+
+    // zero row for a new user; a no-op if it already has one
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = """
+        INSERT IGNORE INTO user_stats (user_id, following_count, follower_count, post_count, received_like_count)
+        VALUES (:userId, 0, 0, 0, 0)
+        """, nativeQuery = true)
+    int seed(@Param("userId") Long userId);
+
+    // the counters computed from the source tables without storing them, for a user with no row yet
+    @Query(value = """
+        SELECT (SELECT COUNT(*) FROM follows f WHERE f.follower_id = u.id) AS followingCount,
+               (SELECT COUNT(*) FROM follows f WHERE f.following_id = u.id) AS followerCount,
+               (SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id AND p.deleted_at IS NULL) AS postCount,
+               (SELECT COALESCE(SUM(p.like_count), 0) FROM posts p WHERE p.user_id = u.id) AS receivedLikeCount
+          FROM users u
+         WHERE u.id = :userId
+        """, nativeQuery = true)
+    Optional<UserStatsProjection> computeStats(@Param("userId") Long userId);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM users", nativeQuery = true)
+    long findMaxUserId();
+
+    // (re)compute the rows for a user id range from the source tables; inserts rows that are missing.
+    // VALUES() rather than the derived table's columns in the update list, which H2 (ci profile) can't resolve
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = """
+        INSERT INTO user_stats (user_id, following_count, follower_count, post_count, received_like_count)
+        SELECT s.user_id, s.following_count, s.follower_count, s.post_count, s.received_like_count
+          FROM (SELECT u.id AS user_id,
+                       (SELECT COUNT(*) FROM follows f WHERE f.follower_id = u.id) AS following_count,
+                       (SELECT COUNT(*) FROM follows f WHERE f.following_id = u.id) AS follower_count,
+                       (SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id AND p.deleted_at IS NULL) AS post_count,
+                       (SELECT COALESCE(SUM(p.like_count), 0) FROM posts p WHERE p.user_id = u.id) AS received_like_count
+                  FROM users u
+                 WHERE u.id BETWEEN :fromId AND :toId) s
+        ON DUPLICATE KEY UPDATE
+            following_count = VALUES(following_count),
+            follower_count = VALUES(follower_count),
+            post_count = VALUES(post_count),
+            received_like_count = VALUES(received_like_count)
+        """, nativeQuery = true)
+    int recompute(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,8 @@
+package com.example.communityforum.persistence.repository.projection;
+
+// a follow edge by ids only, for bulk loading the social graph
+public interface FollowEdgeProjection {
+    Long getId();
+    Long getFollowerId();
+    Long getFollowingId();
+}
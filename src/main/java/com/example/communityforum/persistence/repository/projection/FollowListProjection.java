@@ -0,0 +1,13 @@
+package com.example.communityforum.persistence.repository.projection;
+
+import java.time.LocalDateTime;
+
+// one row of a follower/following list: the follow id is the cursor, the rest comes from the joined user
+public interface FollowListProjection {
+    Long getFollowId();
+    LocalDateTime getFollowedAt();
+    Long getUserId();
+    String getUsername();
+    String getFullname();
+    String getAvatarPath();
+}
@@ -0,0 +1,18 @@
+package com.example.communityforum.persistence.repository.projection;
+
+import java.time.LocalDateTime;
+
+// list-page view of a post: excerpt is cut in the database, full content is never loaded
+public interface PostListProjection {
+    Long getId();
+    String getTitle();
+    String getExcerpt();
+    Integer getContentLength();
+    String getSlug();
+    LocalDateTime getCreatedAt();
+    long getLikeCount();
+    long getCommentCount();
+    Long getAuthorId();
+    String getAuthorUsername();
+    String getAuthorAvatarPath();
+}
@@ -0,0 +1,6 @@
+package com.example.communityforum.persistence.repository.projection;
+
+public interface PostTagProjection {
+    Long getPostId();
+    String getName();
+}
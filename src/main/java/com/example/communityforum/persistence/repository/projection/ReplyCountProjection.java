@@ -0,0 +1,6 @@
+package com.example.communityforum.persistence.repository.projection;
+
+public interface ReplyCountProjection {
+    Long getRootId();
+    long getReplyCount();
+}
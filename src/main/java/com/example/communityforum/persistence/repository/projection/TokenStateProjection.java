@@ -0,0 +1,8 @@
+package com.example.communityforum.persistence.repository.projection;
+
+public interface TokenStateProjection {
+    String getUsername();
+    int getTokenVersion();
+    boolean getEmailVerified();
+    String getRole();
+}
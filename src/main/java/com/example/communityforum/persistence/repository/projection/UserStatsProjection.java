@@ -1,8 +1,8 @@
 package com.example.communityforum.persistence.repository.projection;
 
-public interface ProfileCountsProjection {
+public interface UserStatsProjection {
     long getFollowingCount();
     long getFollowerCount();
     long getPostCount();
-    long getPostLikeCount();
-}
\ No newline at end of file
+    long getReceivedLikeCount();
+}
@@ -0,0 +1,51 @@
+package com.example.communityforum.security;
+
+import com.example.communityforum.persistence.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal placed in the security context by JwtAuthenticationFilter,
+ * so id/role/verified checks don't need to reload the user.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final boolean emailVerified;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, String role, boolean emailVerified) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.emailVerified = emailVerified;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole(), user.isEmailVerified());
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // credentials are never kept on the principal
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
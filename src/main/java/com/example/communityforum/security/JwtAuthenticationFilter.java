@@ -1,11 +1,14 @@
 package com.example.communityforum.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -21,10 +24,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final TokenVersionCache tokenVersionCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    // Check version claims against the cached user state and skip loading the user entity on every request
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository,
+                                   TokenVersionCache tokenVersionCache) {
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @Override
@@ -41,22 +51,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            Long userId = jwtUtil.extractUserId(token);
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                userRepository.findById(userId).ifPresent(user -> {
-                    if (jwtUtil.validateToken(token, userId)) {
-                        var userDetails = org.springframework.security.core.userdetails.User
-                                .withUsername(user.getUsername())
-                                .password(user.getPassword())
-                                .roles(user.getRole())
-                                .build();
-
-                        var authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
-                });
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (stateless) {
+                    authenticateFromClaims(token, request);
+                } else {
+                    authenticateFromDatabase(token, request);
+                }
             }
         } catch (Exception e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
@@ -68,4 +68,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Parses the token once and checks it against the cached token version; the role comes from the
+    // cached state, so a demotion applies within the cache window rather than at token expiry
+    private void authenticateFromClaims(String token, HttpServletRequest request) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return; // invalid or expired: continue unauthenticated
+        }
+
+        Long userId = JwtUtil.getUserId(claims);
+        Integer version = JwtUtil.getTokenVersion(claims);
+        String role = claims.get("role", String.class);
+        if (userId == null || version == null || role == null) {
+            // issued before role/version claims were added
+            authenticateFromDatabase(token, request);
+            return;
+        }
+
+        tokenVersionCache.get(userId)
+                .filter(state -> state.tokenVersion() == version)
+                .ifPresent(state -> {
+                    if (!role.equals(state.role())) {
+                        logger.debug("Role claim {} of user {} is stale, using {}", role, userId, state.role());
+                    }
+                    setAuthentication(
+                            new AuthenticatedUser(userId, state.username(), state.role(), state.emailVerified()), request);
+                });
+    }
+
+    private void authenticateFromDatabase(String token, HttpServletRequest request) {
+        Long userId = jwtUtil.extractUserId(token);
+        if (userId == null) return;
+
+        userRepository.findById(userId).ifPresent(user -> {
+            Integer version = jwtUtil.extractClaim(token, JwtUtil::getTokenVersion);
+            if (version != null && version != user.getTokenVersion()) return; // revoked
+            if (jwtUtil.validateToken(token, userId)) {
+                setAuthentication(AuthenticatedUser.from(user), request);
+            }
+        });
+    }
+
+    private void setAuthentication(AuthenticatedUser userDetails, HttpServletRequest request) {
+        var authToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
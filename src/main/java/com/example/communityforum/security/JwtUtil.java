@@ -1,15 +1,25 @@
 package com.example.communityforum.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +31,19 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
+    // Verified claims keyed by SHA-256 of the token, kept until the token's own expiry
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtUtil(@Value("${jwt.claims-cache.max-size:10000}") long claimsCacheSize,
+                   MeterRegistry meterRegistry) {
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(Expiry.<String, Claims>creating((key, claims) -> timeToExpiry(claims)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -34,11 +57,33 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Verifies signature and expiry once; throws JwtException when the token is invalid
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    // Invalid tokens throw from the loader and are never cached
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
+        return claimsCache.get(sha256(token), key -> Jwts.parser()
                 .setSigningKey(SECRET_KEY)
                 .parseClaimsJws(token)
-                .getBody();
+                .getBody());
+    }
+
+    private static Duration timeToExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) return Duration.ZERO;
+        long millis = expiration.getTime() - System.currentTimeMillis();
+        return millis > 0 ? Duration.ofMillis(millis) : Duration.ZERO;
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -48,19 +93,30 @@ public class JwtUtil {
     public String generateToken(com.example.communityforum.persistence.entity.User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("uid", user.getId());
+        claims.put("role", user.getRole());
+        claims.put("ver", user.getTokenVersion());
         return createToken(claims, user.getUsername()); // keep subject as username for compatibility
     }
 
     public Long extractUserId(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            Object v = claims.get("uid");
-            return (v instanceof Number) ? ((Number) v).longValue() : null;
+            return getUserId(extractAllClaims(token));
         } catch (Exception e) {
             return null;
         }
     }
 
+    public static Long getUserId(Claims claims) {
+        Object v = claims.get("uid");
+        return (v instanceof Number) ? ((Number) v).longValue() : null;
+    }
+
+    // null for tokens issued before the version claim existed
+    public static Integer getTokenVersion(Claims claims) {
+        Object v = claims.get("ver");
+        return (v instanceof Number) ? ((Number) v).intValue() : null;
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -63,7 +63,8 @@ public class SecurityConfig {
 
                         /// Exclude swagger from JWT chain
                         .requestMatchers("/docs", "/swagger-ui/**", "/v3/api-docs/**", "/notification-test.html").permitAll()
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/auth/me").authenticated()
                         .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/ws/**", "/index.html").permitAll()
@@ -5,15 +5,15 @@ import com.example.communityforum.exception.PermissionDeniedException;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.UserRepository;
 
-import io.jsonwebtoken.Claims;
-
-import java.util.HashMap;
-
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
 
 @Component("securityUtils")
 public class SecurityUtils {
@@ -23,35 +23,75 @@ public class SecurityUtils {
         this.userRepository = userRepository;
     }
 
-    public Long getCurrentUserId() {
+    private static final String CURRENT_USER_ATTR = SecurityUtils.class.getName() + ".currentUser";
+
+    // Principal of the current request; falls back to a DB lookup for non-JWT principals
+    public AuthenticatedUser getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
-            throw new SecurityException("User not authenticated");
+            throw new AuthenticationCredentialsNotFoundException("User not authenticated");
         }
 
         Object principal = authentication.getPrincipal();
 
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
         if (principal instanceof UserDetails) {
-            String username = ((UserDetails) principal).getUsername();
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new SecurityException("User not found in database"));
-            return user.getId();
+            return AuthenticatedUser.from(getCurrentUser());
+        }
+
+        throw new SecurityException("Unable to extract user from authentication");
+    }
+
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new SecurityException("User not authenticated");
+        }
+        if (!(authentication.getPrincipal() instanceof UserDetails)) {
+            throw new SecurityException("Unable to extract user ID from authentication");
         }
+        return getCurrentPrincipal().getId();
+    }
 
-        throw new SecurityException("Unable to extract user ID from authentication");
+    // Id of the signed-in user, empty for anonymous requests
+    public Optional<Long> findCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof UserDetails)) {
+            return Optional.empty();
+        }
+        return Optional.of(getCurrentPrincipal().getId());
     }
 
+    // Loads the current user entity at most once per request
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new AuthenticationCredentialsNotFoundException("User not authenticated");
         }
 
-        Object principal = authentication.getPrincipal();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(CURRENT_USER_ATTR, RequestAttributes.SCOPE_REQUEST) instanceof User cached) {
+            return cached;
+        }
 
-        if (principal instanceof UserDetails) {
-            String username = ((UserDetails) principal).getUsername();
-            return userRepository.findByUsername(username)
+        User user = loadUser(authentication.getPrincipal());
+        if (attributes != null) {
+            attributes.setAttribute(CURRENT_USER_ATTR, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private User loadUser(Object principal) {
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return userRepository.findById(authenticatedUser.getId())
+                    .orElseThrow(() -> new SecurityException("User not found in database"));
+        }
+        if (principal instanceof UserDetails userDetails) {
+            return userRepository.findByUsername(userDetails.getUsername())
                     .orElseThrow(() -> new SecurityException("User not found in database"));
         }
 
@@ -69,12 +109,12 @@ public class SecurityUtils {
     public boolean isOwner(Object entity) {
         if (entity == null) return false;
 
-        User currentUser = getCurrentUser();
+        Long currentUserId = getCurrentUserId();
 
         try {
             // Try to call getUser() using reflection
             User owner = (User) entity.getClass().getMethod("getUser").invoke(entity);
-            return owner != null && owner.getId().equals(currentUser.getId());
+            return owner != null && currentUserId.equals(owner.getId());
         } catch (Exception e) {
             // Method not found or invocation failed
             return false;
@@ -91,14 +131,12 @@ public class SecurityUtils {
     }
 
     public boolean isAdmin() {
-        User currentUser = getCurrentUser();
-        return currentUser.getRole().equals("ADMIN");
+        return getCurrentPrincipal().isAdmin();
     }
 
     // Check if current user's email is verified
     public boolean isVerified() {
-        User currentUser = getCurrentUser();
-        return currentUser.isEmailVerified();
+        return getCurrentPrincipal().isEmailVerified();
     }
 
     public void checkEmailVerified(User user) {
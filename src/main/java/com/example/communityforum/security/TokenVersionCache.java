@@ -0,0 +1,60 @@
+package com.example.communityforum.security;
+
+import com.example.communityforum.persistence.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived per-node cache of the user state a stateless JWT is checked against
+ * (token version for revocation, current username, role and verified flag).
+ * The node that handles an email change, email verification, password reset or username change
+ * evicts its entry on commit. Every other change, on this node or another, including a role change
+ * or a token version bump made outside those paths, is picked up when the entry expires, i.e.
+ * within {@code jwt.version-cache.ttl-ms} (30 seconds by default). That is the revocation window.
+ */
+@Component
+public class TokenVersionCache {
+
+    public record TokenState(String username, int tokenVersion, boolean emailVerified, String role) {}
+
+    private final UserRepository userRepository;
+    private final Cache<Long, TokenState> entries;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${jwt.version-cache.ttl-ms:30000}") long ttlMs,
+                             @Value("${jwt.version-cache.max-entries:10000}") long maxEntries) {
+        this.userRepository = userRepository;
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    // Empty when the user no longer exists; missing users aren't cached
+    public Optional<TokenState> get(Long userId) {
+        return Optional.ofNullable(entries.get(userId, id -> userRepository.findTokenStateById(id)
+                .map(p -> new TokenState(p.getUsername(), p.getTokenVersion(), p.getEmailVerified(), p.getRole()))
+                .orElse(null)));
+    }
+
+    // Drop the cached state once the surrounding transaction commits
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.invalidate(userId);
+                }
+            });
+        } else {
+            entries.invalidate(userId);
+        }
+    }
+}
@@ -1,25 +1,37 @@
 package com.example.communityforum.service;
 
 import com.example.communityforum.dto.comment.CommentRequestDTO;
+import com.example.communityforum.dto.CursorPageResponse;
 import com.example.communityforum.dto.comment.CommentResponseDTO;
+import com.example.communityforum.dto.comment.CommentThreadDTO;
 import com.example.communityforum.events.CommentCreatedEvent;
 import com.example.communityforum.exception.ResourceNotFoundException;
 import com.example.communityforum.mapper.CommentMapper;
+import com.example.communityforum.outbox.OutboxPublisher;
+import com.example.communityforum.persistence.EntityCacheEvictor;
 import com.example.communityforum.persistence.entity.Comment;
 import com.example.communityforum.persistence.entity.Post;
-import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.CommentRepository;
+import com.example.communityforum.persistence.repository.LikeRepository;
 import com.example.communityforum.persistence.repository.PostRepository;
 import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.projection.ReplyCountProjection;
 import com.example.communityforum.security.SecurityUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,16 +40,20 @@ public class CommentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final SecurityUtils securityUtils;
-    private final ApplicationEventPublisher  publisher;
+    private final OutboxPublisher outboxPublisher;
     private final CommentMapper commentMapper;
+    private final EntityCacheEvictor cacheEvictor;
+    private final LikeRepository likeRepository;
 
-    public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository, CommentMapper commentMapper, SecurityUtils securityUtils,  ApplicationEventPublisher publisher) {
+    public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository, CommentMapper commentMapper, SecurityUtils securityUtils, OutboxPublisher outboxPublisher, EntityCacheEvictor cacheEvictor, LikeRepository likeRepository) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.commentMapper = commentMapper;
         this.securityUtils = securityUtils;
-        this.publisher = publisher;
+        this.outboxPublisher = outboxPublisher;
+        this.cacheEvictor = cacheEvictor;
+        this.likeRepository = likeRepository;
     }
 
     //get all comments
@@ -50,19 +66,24 @@ public class CommentService {
             commentPage = commentRepository.findAll(pageable);
         }
 
-        return commentPage.map(commentMapper::toResponseDTO);
+        Set<Long> likedIds = getLikedCommentIds(commentPage.getContent());
+        return commentPage.map(comment -> commentMapper.toResponseDTO(comment, likedIds));
     }
 
+    private static final int MAX_THREAD_PAGE_SIZE = 50;
+    private static final int MAX_REPLY_PREVIEW = 10;
+
     // Get value from application.properties
     @Value("${comment.max-depth:2}")
     private int maxDepth;
     //create new comment
+    @Transactional
     public CommentResponseDTO addComment(CommentRequestDTO dto) {
 
-        // Get current authenticated user
-        User currentUser = securityUtils.getCurrentUser();
+        // the author only has to be attached; its name for the response comes from the users cache region
+        Long currentUserId = securityUtils.getCurrentUserId();
 
-        Post post = postRepository.findById(dto.getPostId()).orElseThrow(
+        Post post = postRepository.findActiveById(dto.getPostId()).orElseThrow(
                 () -> new ResourceNotFoundException("post",dto.getPostId())
         );
 
@@ -75,7 +96,7 @@ public class CommentService {
                     () -> new ResourceNotFoundException("Parent comment",dto.getParentCommentId())
             );
 
-            depth = calculateDepth(parent) + 1;
+            depth = parent.getDepth() + 1;
 
             if (depth > maxDepth) {
                 throw new RuntimeException("Maximum reply depth (" + maxDepth + ") reached");
@@ -84,18 +105,23 @@ public class CommentService {
 
         Comment comment = Comment.builder()
                 .content(dto.getContent())
+                .createdAt(LocalDateTime.now()) // the builder skips the field initializer
                 .post(post)
-                .user(currentUser)
+                .user(userRepository.getReferenceById(currentUserId))
                 .parentComment(parent)
+                .depth(depth)
+                .rootId(parent == null ? null : parent.getRootId() != null ? parent.getRootId() : parent.getId())
                 .build();
 
         Comment saved = commentRepository.save(comment);
+        postRepository.incrementCommentCount(post.getId(), 1);
+        cacheEvictor.evict(Post.class, post.getId());
 
         // publish event after comment created succsesfully
-        if(!post.getUser().getId().equals(currentUser.getId())) {
-            publisher.publishEvent(CommentCreatedEvent.builder()
+        if(!post.getUser().getId().equals(currentUserId)) {
+            outboxPublisher.publish(CommentCreatedEvent.builder()
                     .receiverId(post.getUser().getId())     // post owner is the receiver
-                    .senderId(currentUser.getId())          // commenter
+                    .senderId(currentUserId)          // commenter
                     .postTitle(post.getTitle())     // for title of the post
                     .build());
         }
@@ -107,25 +133,138 @@ public class CommentService {
 
     // find root comments of post
     public List<CommentResponseDTO> getCommentsByPost(Long postId) {
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findActiveById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
         List<Comment> comments = commentRepository.findByPostAndParentCommentIsNull(post);
 
+        Set<Long> likedIds = getLikedCommentIds(comments);
         return comments.stream()
-                .map(commentMapper::toResponseDTO)
+                .map(comment -> commentMapper.toResponseDTO(comment, likedIds))
                 .collect(Collectors.toList());
     }
 
 
-    // calculate current depth of comment and return
-    private int calculateDepth(Comment parentComment) {
-        int depth = 1;
-        Comment current =  parentComment;
-        while(current.getParentComment() != null) {
-            depth++;
-            current = current.getParentComment();
+    // whole comment tree of a post (down to comment.max-depth) from a single query
+    @Transactional(readOnly = true)
+    public List<CommentResponseDTO> getCommentTree(Long postId) {
+        postRepository.findActiveById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", postId));
+
+        List<Comment> comments = commentRepository.findThreadByPostId(postId, maxDepth);
+
+        // ordered by createdAt, so each node's replies stay in chronological order
+        Set<Long> likedIds = getLikedCommentIds(comments);
+        Map<Long, CommentResponseDTO> byId = new LinkedHashMap<>();
+        for (Comment comment : comments) {
+            CommentResponseDTO dto = commentMapper.toResponseDTO(comment, likedIds);
+            dto.setReplies(new ArrayList<>());
+            byId.put(comment.getId(), dto);
+        }
+
+        List<CommentResponseDTO> roots = new ArrayList<>();
+        for (CommentResponseDTO dto : byId.values()) {
+            if (dto.getParentCommentId() == null) {
+                roots.add(dto);
+            } else {
+                CommentResponseDTO parent = byId.get(dto.getParentCommentId());
+                if (parent != null) { // replies under a soft-deleted comment are hidden with it
+                    parent.getReplies().add(dto);
+                }
+            }
+        }
+        return roots;
+    }
+
+    // cursor page of a post's top-level comments, each with its first replies, reply count and a cursor for more
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentThreadDTO> getThreads(Long postId, String cursor, int size, int replyPreview) {
+        postRepository.findActiveById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", postId));
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_THREAD_PAGE_SIZE);
+        int preview = Math.min(Math.max(replyPreview, 0), MAX_REPLY_PREVIEW);
+        Limit limit = Limit.of(pageSize + 1); // one extra row tells us if there is a next page
+
+        List<Comment> roots = cursor == null || cursor.isBlank()
+                ? commentRepository.findRootsFirstPage(postId, limit)
+                : commentRepository.findRootsAfter(postId, CursorCodec.decodeId(cursor), limit);
+        boolean hasNext = roots.size() > pageSize;
+        if (hasNext) {
+            roots = roots.subList(0, pageSize);
+        }
+
+        List<Long> rootIds = roots.stream().map(Comment::getId).toList();
+        Map<Long, Long> replyCounts = rootIds.isEmpty() ? Map.of()
+                : commentRepository.countRepliesByRootIds(rootIds).stream()
+                        .collect(Collectors.toMap(ReplyCountProjection::getRootId, ReplyCountProjection::getReplyCount));
+
+        List<Comment> replies = List.of();
+        if (preview > 0 && !replyCounts.isEmpty()) {
+            List<Long> replyIds = commentRepository.findFirstReplyIds(replyCounts.keySet(), preview);
+            if (!replyIds.isEmpty()) {
+                replies = commentRepository.findWithUserByIdIn(replyIds);
+            }
+        }
+
+        // liked flags for roots and previews together, in one query
+        List<Comment> shown = new ArrayList<>(roots);
+        shown.addAll(replies);
+        Set<Long> likedIds = getLikedCommentIds(shown);
+
+        Map<Long, List<CommentResponseDTO>> previews = new HashMap<>();
+        for (Comment reply : replies) {
+            previews.computeIfAbsent(reply.getRootId(), id -> new ArrayList<>())
+                    .add(commentMapper.toResponseDTO(reply, likedIds));
+        }
+
+        List<CommentThreadDTO> threads = roots.stream().map(root -> {
+            List<CommentResponseDTO> shownReplies = previews.getOrDefault(root.getId(), List.of());
+            long replyCount = replyCounts.getOrDefault(root.getId(), 0L);
+            Long lastShownId = shownReplies.isEmpty() ? 0L : shownReplies.get(shownReplies.size() - 1).getId();
+            return CommentThreadDTO.builder()
+                    .comment(commentMapper.toResponseDTO(root, likedIds))
+                    .replies(shownReplies)
+                    .replyCount(replyCount)
+                    .repliesNextCursor(replyCount > shownReplies.size() ? CursorCodec.encodeId(lastShownId) : null)
+                    .build();
+        }).toList();
+
+        Comment last = roots.isEmpty() ? null : roots.get(roots.size() - 1);
+        return CursorPageResponse.<CommentThreadDTO>builder()
+                .content(threads)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorCodec.encodeId(last.getId()) : null)
+                .build();
+    }
+
+    // cursor page of all replies in one thread, oldest first
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentResponseDTO> getReplies(Long rootId, String cursor, int size) {
+        // only live top-level comments of live posts have a thread
+        commentRepository.findById(rootId)
+                .filter(root -> root.getDepth() == 1 && root.getDeletedAt() == null)
+                .flatMap(root -> postRepository.findActiveById(root.getPost().getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Comment", rootId));
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_THREAD_PAGE_SIZE);
+        Long afterId = cursor == null || cursor.isBlank() ? 0L : CursorCodec.decodeId(cursor);
+
+        List<Long> replyIds = commentRepository.findVisibleReplyIdsAfter(rootId, afterId, pageSize + 1);
+        List<Comment> replies = replyIds.isEmpty() ? List.of() : commentRepository.findWithUserByIdIn(replyIds);
+        boolean hasNext = replies.size() > pageSize;
+        if (hasNext) {
+            replies = replies.subList(0, pageSize);
         }
-        return depth;
+
+        Set<Long> likedIds = getLikedCommentIds(replies);
+        Comment last = replies.isEmpty() ? null : replies.get(replies.size() - 1);
+        return CursorPageResponse.<CommentResponseDTO>builder()
+                .content(replies.stream().map(reply -> commentMapper.toResponseDTO(reply, likedIds)).toList())
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorCodec.encodeId(last.getId()) : null)
+                .build();
     }
 
     //get comment by ID
@@ -134,13 +273,23 @@ public class CommentService {
                 .orElseThrow(
                         () -> new ResourceNotFoundException("comment",id)
                 );
-        return commentMapper.toResponseDTO(comment);
+        return commentMapper.toResponseDTO(comment, getLikedCommentIds(List.of(comment)));
     }
 
     //get comment by user ID
     public Page<CommentResponseDTO> getCommentsByUser(Long userId, Pageable pageable) {
         Page<Comment> commentsPage = commentRepository.findByUserId(userId, pageable);
-        return commentsPage.map(commentMapper::toResponseDTO);
+        Set<Long> likedIds = getLikedCommentIds(commentsPage.getContent());
+        return commentsPage.map(comment -> commentMapper.toResponseDTO(comment, likedIds));
+    }
+
+    // ids of the given comments the current user has liked; like counts come from the denormalized column
+    private Set<Long> getLikedCommentIds(List<Comment> comments) {
+        Optional<Long> userId = securityUtils.findCurrentUserId();
+        if (userId.isEmpty() || comments.isEmpty()) {
+            return Set.of();
+        }
+        return likeRepository.findLikedCommentIds(userId.get(), comments.stream().map(Comment::getId).toList());
     }
     //update comment
     public CommentResponseDTO updateComment(Long id, CommentRequestDTO dto) {
@@ -154,13 +303,30 @@ public class CommentService {
     }
 
     //delete comment
+    @Transactional
     public void deleteComment(Long id) {
         // Check if the comment exists
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", id));
 
+        // replies are removed by cascade, so they leave the post's count too
+        long removed = countWithReplies(comment);
+
         // Permanently delete it
         commentRepository.delete(comment);
+        postRepository.incrementCommentCount(comment.getPost().getId(), -removed);
+        cacheEvictor.evict(Post.class, comment.getPost().getId());
+    }
+
+    // count a comment plus all of its nested replies
+    private long countWithReplies(Comment comment) {
+        long count = 1;
+        if (comment.getReplies() != null) {
+            for (Comment reply : comment.getReplies()) {
+                count += countWithReplies(reply);
+            }
+        }
+        return count;
     }
 
 }
@@ -0,0 +1,61 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.exception.HttpStatusException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque, URL-safe cursor strings for infinite-scroll endpoints.
+ */
+public final class CursorCodec {
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {}
+
+    // position in a (createdAt desc, id desc) ordering
+    public record TimeIdCursor(LocalDateTime createdAt, Long id) {}
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return toBase64(createdAt + SEPARATOR + id);
+    }
+
+    public static TimeIdCursor decodeTimeId(String cursor) {
+        try {
+            String raw = fromBase64(cursor);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            return new TimeIdCursor(
+                    LocalDateTime.parse(raw.substring(0, idx)),
+                    Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    public static String encodeId(Long id) {
+        return toBase64(String.valueOf(id));
+    }
+
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.parseLong(fromBase64(cursor));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    private static String toBase64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromBase64(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static HttpStatusException invalid() {
+        return HttpStatusException.of("Invalid cursor", HttpStatus.BAD_REQUEST);
+    }
+}
@@ -1,23 +1,32 @@
 package com.example.communityforum.service;
 
+import com.example.communityforum.dto.CursorPageResponse;
+import com.example.communityforum.dto.user.FollowUserDTO;
 import com.example.communityforum.events.NewFollowerEvent;
+import com.example.communityforum.events.UnfollowedEvent;
 import com.example.communityforum.exception.HttpStatusException;
 import com.example.communityforum.exception.ResourceNotFoundException;
+import com.example.communityforum.graph.SocialGraphIndex;
+import com.example.communityforum.outbox.OutboxPublisher;
 import com.example.communityforum.persistence.entity.Follow;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.FollowRepository;
 import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.UserStatsRepository;
+import com.example.communityforum.persistence.repository.projection.FollowListProjection;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -25,62 +34,143 @@ public class FollowService {
 
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
+    private final UserStatsRepository userStatsRepository;
     private final ApplicationEventPublisher publisher;
+    private final OutboxPublisher outboxPublisher;
+    private final TimelineService timelineService;
+    private final SocialGraphIndex socialGraphIndex;
+
+    private static final int MAX_FOLLOW_PAGE_SIZE = 100;
 
     @Transactional
     public void followUser(Long followerId, Long followingId) {
         if (followerId.equals(followingId)) throw HttpStatusException.of("You cannot follow yourself.", HttpStatus.BAD_REQUEST);
-        User follower = userRepository.findById(followerId).orElseThrow(() -> new ResourceNotFoundException("Follower",followerId));
-        User following = userRepository.findById(followingId).orElseThrow(() -> new ResourceNotFoundException("User to follow",followingId));
-        if (followRepository.existsByFollowerAndFollowing(follower, following)) throw HttpStatusException.of("Already following", HttpStatus.BAD_REQUEST);
-        followRepository.save(Follow.builder().follower(follower).following(following).build());
-        // publish NewFollower event
-        publisher.publishEvent(NewFollowerEvent.builder()
-                .followerId(followerId)
-                .followingId(followingId)
-                .build());
+        if (!follow(followerId, followingId)) throw HttpStatusException.of("Already following", HttpStatus.BAD_REQUEST);
     }
 
     @Transactional
     public void unfollowUser(Long followerId, Long followingId) {
-        User follower = userRepository.findById(followerId).orElseThrow(() -> new ResourceNotFoundException("Follower",followerId));
-        User following = userRepository.findById(followingId).orElseThrow(() -> new ResourceNotFoundException("User to unfollow",followingId));
-        followRepository.deleteByFollowerAndFollowing(follower, following);
+        if (!unfollow(followerId, followingId) && !userRepository.existsById(followingId)) {
+            throw new ResourceNotFoundException("User to unfollow", followingId);
+        }
     }
 
+    // one read for both follow directions, then a single insert or delete, all by id
     @Transactional
     public Map<String, Object> toggleFollow(Long followerId, Long followingId) {
         if (followerId.equals(followingId))
             throw HttpStatusException.of("You cannot follow yourself.", HttpStatus.BAD_REQUEST);
 
-        User follower = userRepository.findById(followerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Follower", followerId));
-        User following = userRepository.findById(followingId)
-                .orElseThrow(() -> new ResourceNotFoundException("User to follow", followingId));
+        List<Long> directions = followRepository.findFollowDirections(followerId, followingId);
+        boolean followsBack = directions.contains(followingId);
 
         boolean followed;
-        if (followRepository.existsByFollowerAndFollowing(follower, following)) {
-            followRepository.deleteByFollowerAndFollowing(follower, following);
+        if (directions.contains(followerId)) {
+            unfollow(followerId, followingId);
             followed = false;
         } else {
-            followRepository.save(Follow.builder().follower(follower).following(following).build());
+            follow(followerId, followingId); // false only when a concurrent request got there first
             followed = true;
-            publisher.publishEvent(NewFollowerEvent.builder()
-                    .followerId(followerId)
-                    .followingId(followingId)
-                    .build());
         }
 
-        boolean isFriend = followRepository.existsByFollowerAndFollowing(follower, following) &&
-                followRepository.existsByFollowerAndFollowing(following, follower);
-
         return Map.of(
                 "followingId", followingId,
                 "followed", followed,
-                "isFriend", isFriend
+                "isFriend", followed && followsBack
         );
     }
 
+    // inserts the follow edge; false if it already existed
+    private boolean follow(Long followerId, Long followingId) {
+        if (followRepository.insertFollow(followerId, followingId) == 0) {
+            // INSERT IGNORE also swallows the foreign key error for an unknown user
+            if (!userRepository.existsById(followingId)) {
+                throw new ResourceNotFoundException("User to follow", followingId);
+            }
+            return false;
+        }
+        userStatsRepository.adjustFollowCounts(followerId, followingId, 1);
+        NewFollowerEvent event = NewFollowerEvent.builder()
+                .followerId(followerId)
+                .followingId(followingId)
+                .build();
+        // in-process for the graph index and the timeline backfill, through the outbox for the follow notification
+        publisher.publishEvent(event);
+        outboxPublisher.publish(event);
+        return true;
+    }
+
+    // deletes the follow edge; false if there was none
+    private boolean unfollow(Long followerId, Long followingId) {
+        if (followRepository.deleteFollow(followerId, followingId) == 0) {
+            return false;
+        }
+        userStatsRepository.adjustFollowCounts(followerId, followingId, -1);
+        timelineService.onUnfollow(followerId, followingId);
+        publisher.publishEvent(UnfollowedEvent.builder()
+                .followerId(followerId)
+                .followingId(followingId)
+                .build());
+        return true;
+    }
+
+    // cursor page of the accounts following userId
+    public CursorPageResponse<FollowUserDTO> getFollowersPage(Long userId, Long viewerId, String cursor, int size) {
+        requireUser(userId);
+        int pageSize = Math.min(Math.max(size, 1), MAX_FOLLOW_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1); // one extra row tells us if there is a next page
+
+        List<FollowListProjection> rows = cursor == null || cursor.isBlank()
+                ? followRepository.findFollowersFirstPage(userId, limit)
+                : followRepository.findFollowersBefore(userId, CursorCodec.decodeId(cursor), limit);
+        return toFollowPage(rows, viewerId, pageSize);
+    }
+
+    // cursor page of the accounts userId follows
+    public CursorPageResponse<FollowUserDTO> getFollowingPage(Long userId, Long viewerId, String cursor, int size) {
+        requireUser(userId);
+        int pageSize = Math.min(Math.max(size, 1), MAX_FOLLOW_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<FollowListProjection> rows = cursor == null || cursor.isBlank()
+                ? followRepository.findFollowingFirstPage(userId, limit)
+                : followRepository.findFollowingBefore(userId, CursorCodec.decodeId(cursor), limit);
+        return toFollowPage(rows, viewerId, pageSize);
+    }
+
+    private void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("UserId", userId);
+        }
+    }
+
+    // trims the look-ahead row and resolves the viewer's follow flags in one query
+    private CursorPageResponse<FollowUserDTO> toFollowPage(List<FollowListProjection> rows, Long viewerId, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<Long> userIds = rows.stream().map(FollowListProjection::getUserId).toList();
+        Set<Long> followedByViewer = userIds.isEmpty() ? Set.of()
+                : socialGraphIndex.followedAmong(viewerId, userIds)
+                        .orElseGet(() -> followRepository.findFollowedIdsAmong(viewerId, userIds));
+
+        FollowListProjection last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return CursorPageResponse.<FollowUserDTO>builder()
+                .content(rows.stream().map(row -> FollowUserDTO.builder()
+                        .id(row.getUserId())
+                        .username(row.getUsername())
+                        .fullname(row.getFullname())
+                        .avatar_path(row.getAvatarPath())
+                        .followedAt(row.getFollowedAt())
+                        .followedByMe(followedByViewer.contains(row.getUserId()))
+                        .build()).toList())
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorCodec.encodeId(last.getFollowId()) : null)
+                .build();
+    }
 
     public List<User> getFollowing(Long userId) {
         User user = userRepository.findById(userId)
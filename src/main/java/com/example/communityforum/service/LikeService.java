@@ -3,12 +3,12 @@ package com.example.communityforum.service;
 import com.example.communityforum.dto.LikeRequestDTO;
 import com.example.communityforum.events.LikeToggledEvent;
 import com.example.communityforum.exception.ResourceNotFoundException;
+import com.example.communityforum.outbox.OutboxPublisher;
 import com.example.communityforum.persistence.entity.*;
 import com.example.communityforum.persistence.repository.*;
 import com.example.communityforum.security.SecurityUtils;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class LikeService {
@@ -18,87 +18,108 @@ public class LikeService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final SecurityUtils securityUtils;
-    private final ApplicationEventPublisher publisher;
-
+    private final OutboxPublisher outboxPublisher;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final TransactionTemplate transactionTemplate;
 
     public LikeService(LikeRepository likeRepository,
                        PostRepository postRepository,
                        CommentRepository commentRepository,
                        UserRepository userRepository,
                        SecurityUtils securityUtils,
-                       ApplicationEventPublisher publisher
+                       OutboxPublisher outboxPublisher,
+                       LikeWriteBuffer likeWriteBuffer,
+                       TransactionTemplate transactionTemplate
     ) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.securityUtils = securityUtils;
-        this.publisher = publisher;
+        this.outboxPublisher = outboxPublisher;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    // Toggle like on a post or comment
-    @Transactional
+    // Toggle like on a post or comment.
+    // Deliberately not @Transactional: the buffer's persisted-state lookup has to see every flush
+    // committed before it checks the flush generation, which a REPEATABLE READ snapshot opened
+    // earlier in the request would not. Only the comment path needs a transaction.
     public boolean toggleLike(LikeRequestDTO request) {
-        User currentUser = securityUtils.getCurrentUser();
-
-        boolean nowLiked = false;
-        Like like = null;
-        Long ownerId;
-
+        Long userId = securityUtils.getCurrentUserId();
         if (request.getTargetType() == LikeRequestDTO.TargetType.POST) {
-            Post post = postRepository.findById(request.getTargetId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Post", request.getTargetId()));
-
-            ownerId = post.getUser().getId();
+            // post likes go through the write-behind buffer, which publishes like events once stored
+            Post post = findPost(request.getTargetId());
+            return likeWriteBuffer.toggle(userId, post.getId(), post.getUser().getId(),
+                    () -> likeRepository.existsByUserIdAndPostId(userId, post.getId()));
+        }
 
-            if (likeRepository.existsByUserAndPost(currentUser, post)) {
-                likeRepository.deleteByUserAndPost(currentUser, post);
-                nowLiked = false;
-            } else {
-                like = likeRepository.save(Like.builder().user(currentUser).post(post).build());
-                nowLiked = true;
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Comment comment = findComment(request);
+            // remove the like if there is one, otherwise add it
+            if (applyCommentLike(userId, comment, false)) {
+                return false;
             }
+            applyCommentLike(userId, comment, true);
+            return true;
+        }));
+    }
 
-        } else if (request.getTargetType() == LikeRequestDTO.TargetType.COMMENT) {
-            Comment comment = commentRepository.findById(request.getTargetId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Comment", request.getTargetId()));
+    // Idempotent like/unlike; returns whether the like state actually changed.
+    // Not @Transactional for the same reason as toggleLike
+    public boolean setLiked(LikeRequestDTO request, boolean liked) {
+        Long userId = securityUtils.getCurrentUserId();
+        if (request.getTargetType() == LikeRequestDTO.TargetType.POST) {
+            Post post = findPost(request.getTargetId());
+            return likeWriteBuffer.set(userId, post.getId(), post.getUser().getId(), liked,
+                    () -> likeRepository.existsByUserIdAndPostId(userId, post.getId()));
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> applyCommentLike(userId, findComment(request), liked)));
+    }
 
-            ownerId = comment.getUser().getId();
+    // one INSERT IGNORE or DELETE; the counter and event only follow a real change
+    private boolean applyCommentLike(Long userId, Comment comment, boolean liked) {
+        int changed = liked
+                ? likeRepository.insertCommentLike(userId, comment.getId())
+                : likeRepository.deleteCommentLike(userId, comment.getId());
+        if (changed == 0) {
+            return false;
+        }
+        commentRepository.incrementLikeCount(comment.getId(), liked ? 1 : -1);
+
+        outboxPublisher.publish(LikeToggledEvent.builder()
+                .actorId(userId)
+                .ownerId(comment.getUser().getId())
+                .targetType(LikeRequestDTO.TargetType.COMMENT)
+                .targetId(comment.getId())
+                .nowLiked(liked)
+                .build());
+        return true;
+    }
 
-            if (likeRepository.existsByUserAndComment(currentUser, comment)) {
-                likeRepository.deleteByUserAndComment(currentUser, comment);
-                nowLiked = false;
-            } else {
-                like = likeRepository.save(Like.builder().user(currentUser).comment(comment).build());
-                nowLiked = true;
-            }
+    private Post findPost(Long postId) {
+        return postRepository.findActiveById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", postId));
+    }
 
-        } else {
+    private Comment findComment(LikeRequestDTO request) {
+        if (request.getTargetType() != LikeRequestDTO.TargetType.COMMENT) {
             throw new IllegalArgumentException("Unsupported targetType: " + request.getTargetType());
         }
-
-        // publish once with complete context
-        publisher.publishEvent(LikeToggledEvent.builder()
-                .actorId(currentUser.getId())
-                .ownerId(ownerId)
-                .targetType(request.getTargetType())
-                .targetId(request.getTargetId())
-                .nowLiked(nowLiked)
-                .likeId(like != null ? like.getId() : null)
-                .build());
-
-        return nowLiked;
+        return commentRepository.findById(request.getTargetId())
+                .orElseThrow(() -> new ResourceNotFoundException("Comment", request.getTargetId()));
     }
 
     public long getPostLikeCount(Long postId) {
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findActiveById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post",postId));
-        return likeRepository.countByPost(post);
+        return post.getLikeCount() + likeWriteBuffer.pendingDelta(postId);
     }
 
     public long getCommentLikeCount(Long commentId) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment",commentId));
-        return likeRepository.countByComment(comment);
+        return comment.getLikeCount();
     }
 }
@@ -0,0 +1,433 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.dto.LikeRequestDTO;
+import com.example.communityforum.events.LikeToggledEvent;
+import com.example.communityforum.outbox.OutboxPublisher;
+import com.example.communityforum.persistence.EntityCacheEvictor;
+import com.example.communityforum.persistence.entity.Post;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write-behind buffer for post likes. Toggles are coalesced per (user, post) in memory
+ * and written to {@code likes} in JDBC batches on a short interval, so a viral post
+ * doesn't serialize every click on the same rows and index pages.
+ * Reads merge the pending state through {@link #pendingState} and {@link #pendingDelta}.
+ * Intents still buffered when the node dies are lost; the nightly counter
+ * reconciliation keeps {@code like_count} consistent with whatever reached {@code likes}.
+ * Once {@code likes.buffer.max-intents} are buffered (e.g. flushes keep failing), new pairs
+ * are written through synchronously instead of growing the buffer.
+ * Metrics: {@code likes.buffer.intents}, {@code likes.buffer.flush.failures} and
+ * {@code likes.buffer.write-through}.
+ */
+@Slf4j
+@Component
+public class LikeWriteBuffer {
+
+    private static final String INSERT_LIKE =
+            "INSERT IGNORE INTO likes (user_id, post_id, created_at) VALUES (?, ?, ?)";
+    private static final String DELETE_LIKE =
+            "DELETE FROM likes WHERE user_id = ? AND post_id = ?";
+    private static final String UPDATE_LIKE_COUNT =
+            "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+    private static final String UPDATE_RECEIVED_LIKES =
+            "UPDATE user_stats SET received_like_count = received_like_count + ? WHERE user_id = ?";
+
+    record LikeKey(Long userId, Long postId) {}
+
+    // desired state, the state the database had when first buffered, and the post owner for notifications
+    record Intent(boolean liked, boolean persisted, Long ownerId) {
+        int contribution() {
+            return liked == persisted ? 0 : liked ? 1 : -1;
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Map<LikeKey, Intent> pending = new HashMap<>();
+        Map<LikeKey, Intent> inFlight = Map.of(); // taken by the running flush, not committed yet
+        long generation; // bumped when a flush commits, so stale database reads are retried
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher outboxPublisher;
+    private final EntityCacheEvictor cacheEvictor;
+
+    private final Stripe[] stripes;
+    private final Map<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // entries across all pending and in-flight maps
+    private final AtomicInteger bufferedIntents = new AtomicInteger();
+
+    private final Counter flushFailures;
+    private final Counter writeThroughs;
+
+    @Value("${likes.buffer.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${likes.buffer.max-intents:100000}")
+    private int maxIntents = 100000;
+
+    public LikeWriteBuffer(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           OutboxPublisher outboxPublisher,
+                           EntityCacheEvictor cacheEvictor,
+                           MeterRegistry meterRegistry,
+                           @Value("${likes.buffer.stripes:16}") int stripeCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxPublisher = outboxPublisher;
+        this.cacheEvictor = cacheEvictor;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        Gauge.builder("likes.buffer.intents", bufferedIntents, AtomicInteger::get)
+                .description("Like intents buffered or in flight, not yet in the database")
+                .register(meterRegistry);
+        this.flushFailures = meterRegistry.counter("likes.buffer.flush.failures");
+        this.writeThroughs = meterRegistry.counter("likes.buffer.write-through");
+    }
+
+    /**
+     * Flips the user's like on a post and returns the new state.
+     * {@code persistedLookup} is only consulted when nothing is buffered for the pair.
+     */
+    public boolean toggle(Long userId, Long postId, Long ownerId, BooleanSupplier persistedLookup) {
+        return update(new LikeKey(userId, postId), ownerId, current -> !current, persistedLookup);
+    }
+
+    // Sets the user's like on a post; returns false when it was already in that state
+    public boolean set(Long userId, Long postId, Long ownerId, boolean liked, BooleanSupplier persistedLookup) {
+        boolean[] changed = new boolean[1];
+        update(new LikeKey(userId, postId), ownerId, current -> {
+            changed[0] = current != liked;
+            return liked;
+        }, persistedLookup);
+        return changed[0];
+    }
+
+    private boolean update(LikeKey key, Long ownerId, UnaryOperator<Boolean> next, BooleanSupplier persistedLookup) {
+        Stripe stripe = stripeFor(key);
+        while (true) {
+            long generation;
+            boolean full;
+            stripe.lock.lock();
+            try {
+                Boolean current = bufferedState(stripe, key);
+                if (current != null) {
+                    return apply(stripe, key, current, next.apply(current), ownerId);
+                }
+                generation = stripe.generation;
+                full = bufferedIntents.get() >= maxIntents;
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            // read outside the lock so a slow query doesn't block the whole stripe
+            boolean persisted = persistedLookup.getAsBoolean();
+
+            if (full) {
+                return writeThrough(stripe, key, persisted, next.apply(persisted), ownerId);
+            }
+
+            stripe.lock.lock();
+            try {
+                Boolean current = bufferedState(stripe, key);
+                if (current == null && stripe.generation == generation) {
+                    current = persisted;
+                }
+                if (current != null) {
+                    return apply(stripe, key, current, next.apply(current), ownerId);
+                }
+                // a flush committed in between, so the value read may be stale
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // Buffered like state for the pair, empty when the database is authoritative
+    public Optional<Boolean> pendingState(Long userId, Long postId) {
+        LikeKey key = new LikeKey(userId, postId);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            return Optional.ofNullable(bufferedState(stripe, key));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Net like count change for a post that hasn't reached posts.like_count yet
+    public long pendingDelta(Long postId) {
+        return pendingDeltas.getOrDefault(postId, 0L);
+    }
+
+    // Overlays buffered likes/unlikes of the user on a set of liked post ids
+    public Set<Long> mergeLikedPostIds(Long userId, List<Long> postIds, Set<Long> persistedLiked) {
+        Set<Long> merged = new HashSet<>(persistedLiked);
+        for (Long postId : postIds) {
+            pendingState(userId, postId).ifPresent(liked -> {
+                if (liked) merged.add(postId);
+                else merged.remove(postId);
+            });
+        }
+        return merged;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.buffer.flush-interval-ms:250}")
+    public void flush() {
+        // a lock rather than synchronized: the JDBC batch would pin a virtual thread's carrier
+        flushLock.lock();
+        try {
+            flushBatch();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // one flush at a time: the scheduler and the shutdown hook must not interleave in-flight batches
+    private void flushBatch() {
+        Map<LikeKey, Intent> batch = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (stripe.pending.isEmpty()) continue;
+                stripe.inFlight = stripe.pending;
+                stripe.pending = new HashMap<>();
+                batch.putAll(stripe.inFlight);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        List<Map.Entry<LikeKey, Intent>> inserts = new ArrayList<>();
+        List<Map.Entry<LikeKey, Intent>> deletes = new ArrayList<>();
+        for (Map.Entry<LikeKey, Intent> entry : batch.entrySet()) {
+            (entry.getValue().liked() ? inserts : deletes).add(entry);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(inserts, deletes));
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.error("Like buffer flush of {} intents failed, re-queueing", batch.size(), e);
+            for (Stripe stripe : stripes) {
+                requeue(stripe);
+            }
+            return;
+        }
+
+        Set<Long> touchedPosts = new HashSet<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Map.Entry<LikeKey, Intent> entry : stripe.inFlight.entrySet()) {
+                    adjustDelta(entry.getKey().postId(), -entry.getValue().contribution());
+                    touchedPosts.add(entry.getKey().postId());
+                }
+                bufferedIntents.addAndGet(-stripe.inFlight.size());
+                stripe.inFlight = Map.of();
+                stripe.generation++;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        touchedPosts.forEach(postId -> cacheEvictor.evict(Post.class, postId));
+
+        log.debug("Flushed {} like intents ({} likes, {} unlikes)", batch.size(), inserts.size(), deletes.size());
+    }
+
+    // Writes one pair directly, used once the buffer is full; the generation bump makes
+    // concurrent toggles of the stripe re-read the database instead of trusting a stale value
+    private boolean writeThrough(Stripe stripe, LikeKey key, boolean persisted, boolean liked, Long ownerId) {
+        if (liked != persisted) {
+            List<Map.Entry<LikeKey, Intent>> entry = List.of(Map.entry(key, new Intent(liked, persisted, ownerId)));
+            transactionTemplate.executeWithoutResult(status ->
+                    write(liked ? entry : List.of(), liked ? List.of() : entry));
+            stripe.lock.lock();
+            try {
+                stripe.generation++;
+            } finally {
+                stripe.lock.unlock();
+            }
+            cacheEvictor.evict(Post.class, key.postId());
+        }
+        writeThroughs.increment();
+        return liked;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Applies the batch and records a like event for every row that was actually inserted
+    private void write(List<Map.Entry<LikeKey, Intent>> inserts,
+                       List<Map.Entry<LikeKey, Intent>> deletes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Long> ownerDeltas = new HashMap<>();
+        List<LikeToggledEvent> likeEvents = new ArrayList<>();
+
+        int[][] insertCounts = jdbcTemplate.batchUpdate(INSERT_LIKE, inserts, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getKey().userId());
+            ps.setLong(2, entry.getKey().postId());
+            ps.setTimestamp(3, now);
+        });
+        forEachApplied(inserts, insertCounts, entry -> {
+            deltas.merge(entry.getKey().postId(), 1L, Long::sum);
+            ownerDeltas.merge(entry.getValue().ownerId(), 1L, Long::sum);
+            likeEvents.add(LikeToggledEvent.builder()
+                    .actorId(entry.getKey().userId())
+                    .ownerId(entry.getValue().ownerId())
+                    .targetType(LikeRequestDTO.TargetType.POST)
+                    .targetId(entry.getKey().postId())
+                    .nowLiked(true)
+                    .build());
+        });
+
+        int[][] deleteCounts = jdbcTemplate.batchUpdate(DELETE_LIKE, deletes, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getKey().userId());
+            ps.setLong(2, entry.getKey().postId());
+        });
+        forEachApplied(deletes, deleteCounts, entry -> {
+            deltas.merge(entry.getKey().postId(), -1L, Long::sum);
+            ownerDeltas.merge(entry.getValue().ownerId(), -1L, Long::sum);
+        });
+
+        // counters move by what actually changed, so duplicates and races don't cause drift
+        List<Map.Entry<Long, Long>> counterUpdates = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .toList();
+        jdbcTemplate.batchUpdate(UPDATE_LIKE_COUNT, counterUpdates, batchSize, (ps, e) -> {
+            ps.setLong(1, e.getValue());
+            ps.setLong(2, e.getKey());
+        });
+        List<Map.Entry<Long, Long>> ownerUpdates = ownerDeltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .toList();
+        jdbcTemplate.batchUpdate(UPDATE_RECEIVED_LIKES, ownerUpdates, batchSize, (ps, e) -> {
+            ps.setLong(1, e.getValue());
+            ps.setLong(2, e.getKey());
+        });
+        outboxPublisher.publishAll(likeEvents);
+    }
+
+    // Counters and events depend on per-row counts: a driver that rewrites batches (MySQL
+    // rewriteBatchedStatements) reports SUCCESS_NO_INFO, and guessing "applied" would count
+    // INSERT IGNORE duplicates. Fail the flush instead, which rolls back and re-queues it.
+    private static void forEachApplied(List<Map.Entry<LikeKey, Intent>> entries, int[][] counts,
+                                       Consumer<Map.Entry<LikeKey, Intent>> action) {
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    throw new IllegalStateException(
+                            "JDBC driver returned no per-row update counts; disable rewriteBatchedStatements");
+                }
+                if (count > 0) {
+                    action.accept(entries.get(i));
+                }
+                i++;
+            }
+        }
+    }
+
+    // Puts a failed in-flight batch back in front of anything buffered since
+    private void requeue(Stripe stripe) {
+        stripe.lock.lock();
+        try {
+            for (Map.Entry<LikeKey, Intent> entry : stripe.inFlight.entrySet()) {
+                LikeKey key = entry.getKey();
+                Intent failed = entry.getValue();
+                Intent newer = stripe.pending.get(key);
+                if (newer == null) {
+                    stripe.pending.put(key, failed);
+                    continue;
+                }
+                Intent combined = new Intent(newer.liked(), failed.persisted(), newer.ownerId());
+                adjustDelta(key.postId(), combined.contribution() - failed.contribution() - newer.contribution());
+                bufferedIntents.decrementAndGet(); // the failed intent folds into the newer one
+                if (combined.contribution() == 0) {
+                    stripe.pending.remove(key);
+                    bufferedIntents.decrementAndGet();
+                } else {
+                    stripe.pending.put(key, combined);
+                }
+            }
+            stripe.inFlight = Map.of();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // caller holds the stripe lock
+    private boolean apply(Stripe stripe, LikeKey key, boolean current, boolean liked, Long ownerId) {
+        if (liked == current) {
+            return liked;
+        }
+        Intent previous = stripe.pending.get(key);
+        boolean persisted = previous != null ? previous.persisted() : current;
+        Intent next = new Intent(liked, persisted, ownerId);
+
+        if (next.contribution() == 0) {
+            if (stripe.pending.remove(key) != null) { // toggled back, nothing to write
+                bufferedIntents.decrementAndGet();
+            }
+        } else if (stripe.pending.put(key, next) == null) {
+            bufferedIntents.incrementAndGet();
+        }
+        adjustDelta(key.postId(), next.contribution() - (previous != null ? previous.contribution() : 0));
+        return liked;
+    }
+
+    // caller holds the stripe lock
+    private static Boolean bufferedState(Stripe stripe, LikeKey key) {
+        Intent intent = stripe.pending.get(key);
+        if (intent == null) {
+            intent = stripe.inFlight.get(key);
+        }
+        return intent != null ? intent.liked() : null;
+    }
+
+    private void adjustDelta(Long postId, long change) {
+        if (change == 0) return;
+        pendingDeltas.compute(postId, (id, delta) -> {
+            long next = (delta != null ? delta : 0L) + change;
+            return next == 0 ? null : next;
+        });
+    }
+
+    private Stripe stripeFor(LikeKey key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.communityforum.service;
 
+import com.example.communityforum.dto.CursorPageResponse;
 import com.example.communityforum.dto.post.*;
 import com.example.communityforum.dto.user.UserSummaryDTO;
+import com.example.communityforum.events.PostPublishedEvent;
 import com.example.communityforum.exception.PermissionDeniedException;
 import com.example.communityforum.exception.ResourceNotFoundException;
 import com.example.communityforum.mapper.PostMapper;
@@ -9,8 +11,13 @@ import com.example.communityforum.persistence.entity.Post;
 import com.example.communityforum.persistence.entity.Tag;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.*;
+import com.example.communityforum.persistence.repository.projection.PostListProjection;
+import com.example.communityforum.persistence.repository.projection.PostTagProjection;
 import com.example.communityforum.security.SecurityUtils;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,66 +25,122 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
 @Service
 public class PostService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    private static final int MAX_SLUG_ATTEMPTS = 3;
+    private static final int MAX_BASE_SLUG_LENGTH = 240; // leaves room for the "-n" suffix in the 255-char column
+    private static final int SLUG_TOKEN_LENGTH = 8;
+
     private final PostRepository postRepository;
     private final SecurityUtils securityUtils;
     private final LikeRepository  likeRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
     private final TagRepository tagRepository;
     private final PostMapper  postMapper;
     private final UserRepository userRepository;
-    private final CommentRepository commentRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final TimelineService timelineService;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
 
 
     public Page<PostListResponseDTO> getAllPosts(Pageable pageable) {
-        Page<Post> postPage = postRepository.findAll(pageable);
+        Page<PostListProjection> postPage = postRepository.findListPage(pageable);
 
-        User user = securityUtils.getCurrentUser();
+        Long userId = securityUtils.findCurrentUserId().orElse(null);
         List<Long> postIds = postPage.getContent()
                 .stream()
-                .map(Post::getId)
+                .map(PostListProjection::getId)
                 .toList();
-        Map<Long, Long> likeCountMap = getLikeCountMap(postIds);
-        Map<Long, Long> commentCountMap = getCommentCountMap(postIds);
+        Set<Long> likedPostIds = getLikedPostIds(userId, postIds);
+        Map<Long, List<String>> tagsByPostId = getTagNames(postIds);
 
-        return postPage.map(post -> postMapper.toListDTO(post, user, likeCountMap,commentCountMap));
+        return postPage.map(post -> postMapper.toListDTO(post,
+                tagsByPostId.getOrDefault(post.getId(), List.of()),
+                likedPostIds.contains(post.getId())));
+    }
 
+    // cursor-based feed for infinite scroll, skips the COUNT(*) of offset paging
+    public CursorPageResponse<PostListResponseDTO> getFeed(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1); // one extra row tells us if there is a next page
+
+        List<Post> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFeedFirstPage(limit);
+        } else {
+            CursorCodec.TimeIdCursor position = CursorCodec.decodeTimeId(cursor);
+            posts = postRepository.findFeedAfter(position.createdAt(), position.id(), limit);
+        }
+
+        return toCursorPage(posts, pageSize);
     }
 
-    public PostDetailResponseDTO getPostById(Long id) {
-        Post post = postRepository.findById(id).orElseThrow( () -> new ResourceNotFoundException("Post",id));
+    // home feed of followed users, served from the materialized timeline
+    public CursorPageResponse<PostListResponseDTO> getFollowingFeed(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        CursorCodec.TimeIdCursor after = cursor == null || cursor.isBlank() ? null : CursorCodec.decodeTimeId(cursor);
+
+        List<Post> posts = timelineService.loadFollowingPage(securityUtils.getCurrentUserId(), after, pageSize + 1);
+        return toCursorPage(posts, pageSize);
+    }
+
+    // trims the look-ahead row and builds the next cursor from the last post shown
+    private CursorPageResponse<PostListResponseDTO> toCursorPage(List<Post> posts, int pageSize) {
+        boolean hasNext = posts.size() > pageSize;
+        if (hasNext) {
+            posts = posts.subList(0, pageSize);
+        }
+
+        Long userId = securityUtils.findCurrentUserId().orElse(null);
+        Set<Long> likedPostIds = getLikedPostIds(userId, posts.stream().map(Post::getId).toList());
 
-        User user = securityUtils.getCurrentUser();
+        Post last = posts.isEmpty() ? null : posts.get(posts.size() - 1);
+        return CursorPageResponse.<PostListResponseDTO>builder()
+                .content(posts.stream().map(post -> postMapper.toListDTO(post, likedPostIds)).toList())
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorCodec.encode(last.getCreatedAt(), last.getId()) : null)
+                .build();
+    }
 
-       return postMapper.toDetailDTO(post,user);
+    public PostDetailResponseDTO getPostById(Long id) {
+        Post post = postRepository.findActiveById(id).orElseThrow( () -> new ResourceNotFoundException("Post",id));
+
+        return postMapper.toDetailDTO(post, securityUtils.findCurrentUserId().orElse(null));
     }
 
-    // get like count for post
-    private Map<Long, Long> getLikeCountMap(List<Long> postIds) {
-        List<Object[]> counts = likeRepository.countLikesByPostIds(postIds);
-        return counts.stream().collect(Collectors.toMap(
-                row -> (Long) row[0],
-                row -> (Long) row[1]
-        ));
+    // get ids of posts the user has liked; userId is null for anonymous viewers
+    private Set<Long> getLikedPostIds(Long userId, List<Long> postIds) {
+        if (userId == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+        return likeWriteBuffer.mergeLikedPostIds(userId, postIds,
+                likeRepository.findLikedPostIds(userId, postIds));
     }
 
-    // get comment count for post
-    private Map<Long, Long> getCommentCountMap(List<Long> postIds) {
-        List<Object[]> counts = commentRepository.countCommentsByPostIds(postIds);
-        return counts.stream().collect(Collectors.toMap(
-                row -> (Long) row[0],
-                row -> (Long) row[1]
-        ));
+    // tag names for a page of posts in one query
+    private Map<Long, List<String>> getTagNames(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        return postRepository.findTagNamesByPostIds(postIds).stream()
+                .collect(Collectors.groupingBy(PostTagProjection::getPostId,
+                        Collectors.mapping(PostTagProjection::getName, Collectors.toList())));
     }
 
     // get all posts by user id
@@ -88,29 +151,24 @@ public class PostService {
 
         // 2️⃣ Pagination
         Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("createdAt").descending());
-        Page<Post> postPage = postRepository.findAllByUser_Id(userId, pageable);
-
-        // 3️⃣ Fetch like counts and comment counts in bulk
-        List<Long> postIds = postPage.getContent()
-                .stream()
-                .map(Post::getId)
-                .toList();
-        Map<Long, Long> likeCountMap = getLikeCountMap(postIds);
-        Map<Long, Long> commentCountMap = getCommentCountMap(postIds);
+        Page<PostListProjection> postPage = postRepository.findListPageByUserId(userId, pageable);
 
-        // 4️⃣ Map posts using helper function
+        // 3️⃣ Map posts using helper function (counters are stored on the post)
+        Map<Long, List<String>> tagsByPostId = getTagNames(postPage.getContent().stream()
+                .map(PostListProjection::getId)
+                .toList());
         List<PostSummaryDTO> postDTOs = postPage.getContent().stream()
-                .map(post -> postMapper.mapToPostSummaryDTO(post, likeCountMap,commentCountMap))
+                .map(post -> postMapper.toSummaryDTO(post, tagsByPostId.getOrDefault(post.getId(), List.of())))
                 .toList();
 
-        // 5️⃣ Author info
+        // 4️⃣ Author info
         UserSummaryDTO authorDTO = UserSummaryDTO.builder()
                 .id(user.getId())
                 .username(user.getUsername())
                 .avatar_path(user.getAvatarPath())
                 .build();
 
-        // 6️⃣ Return response
+        // 5️⃣ Return response
         return UserPostsResponseDTO.builder()
                 .author(authorDTO)
                 .posts(postDTOs)
@@ -120,7 +178,20 @@ public class PostService {
                 .build();
     }
 
+    // a concurrent post can take the same slug between lookup and insert; retry with a fresh suffix,
+    // and on the last attempt with a random one that no numeric suffix can collide with
     public PostDetailResponseDTO addPost(PostRequestDTO request) {
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= MAX_SLUG_ATTEMPTS;
+            try {
+                return transactionTemplate.execute(status -> createPost(request, lastAttempt));
+            } catch (DataIntegrityViolationException e) {
+                if (lastAttempt) throw e;
+            }
+        }
+    }
+
+    private PostDetailResponseDTO createPost(PostRequestDTO request, boolean randomSuffix) {
         User currentUser = securityUtils.getCurrentUser();
         Post post = new Post();
         post.setTitle(request.getTitle());
@@ -132,44 +203,86 @@ public class PostService {
         post.setTags(processTags(request.getTags()));
 
         // generate slug
-        String slug = generateSlug(request.getTitle());
+        String slug = generateSlug(request.getTitle(), randomSuffix);
         post.setSlug(slug);
 
         postRepository.save(post);
-        return postMapper.toDetailDTO(post, currentUser);
+        userStatsRepository.adjustPostCounts(currentUser.getId(), 1, 0);
+
+        // followers' timelines are filled asynchronously
+        publisher.publishEvent(PostPublishedEvent.builder()
+                .postId(post.getId())
+                .authorId(currentUser.getId())
+                .createdAt(post.getCreatedAt())
+                .build());
+
+        return postMapper.toDetailDTO(post, securityUtils.getCurrentUserId());
     }
 
-    private String generateSlug(String title) {
+    // one query for the highest "-n" suffix in use (soft-deleted posts included) instead of probing each candidate
+    private String generateSlug(String title, boolean randomSuffix) {
         String baseSlug = title.toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")  // remove special chars
-                .replaceAll("\\s+", "-");         // replace spaces with hyphen
-
-        String slug = baseSlug;
-        int counter = 1;
+                .replaceAll("\\s+", "-")          // replace spaces with hyphen
+                .replaceAll("-{2,}", "-")
+                .replaceAll("^-|-$", "");
+        if (baseSlug.length() > MAX_BASE_SLUG_LENGTH) {
+            baseSlug = baseSlug.substring(0, MAX_BASE_SLUG_LENGTH).replaceAll("-+$", "");
+        }
+        if (baseSlug.isEmpty()) {
+            baseSlug = "post";
+        }
 
-        // ensure uniqueness by checking repository
-        while (postRepository.existsBySlug(slug)) {
-            slug = baseSlug + "-" + counter++;
+        if (randomSuffix) {
+            return baseSlug + "-" + randomSlugToken();
         }
+        long maxSuffix = postRepository.findMaxSlugSuffix(baseSlug);
+        return maxSuffix < 0 ? baseSlug : baseSlug + "-" + (maxSuffix + 1);
+    }
 
-        return slug;
+    // letters only, so the token is never read back as a numeric suffix
+    private static String randomSlugToken() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder token = new StringBuilder(SLUG_TOKEN_LENGTH);
+        for (int i = 0; i < SLUG_TOKEN_LENGTH; i++) {
+            token.append((char) ('a' + random.nextInt(26)));
+        }
+        return token.toString();
     }
-    
+
+    // resolve all tags in one IN query and create the missing ones in one multi-row insert
     private Set<Tag> processTags(List<String> tagNames) {
         if (tagNames == null || tagNames.isEmpty()) {
             return new HashSet<>(); // return an empty set instead of null
         }
-        return tagNames.stream()
-                .filter(tagName -> tagName != null && !tagName.trim().isEmpty())
-                .map(tagName -> tagRepository.findByNameIgnoreCase(tagName.trim())
-                        .orElseGet(() -> tagRepository.save(Tag.builder().name(tagName.trim()).build())))
-                .collect(Collectors.toSet());
+
+        Map<String, String> namesByNormalized = new LinkedHashMap<>();
+        for (String tagName : tagNames) {
+            if (tagName != null && !tagName.trim().isEmpty()) {
+                namesByNormalized.putIfAbsent(Tag.normalize(tagName), tagName.trim());
+            }
+        }
+        if (namesByNormalized.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Tag> tags = new HashSet<>(tagRepository.findByNormalizedNameIn(namesByNormalized.keySet()));
+        if (tags.size() == namesByNormalized.size()) {
+            return tags;
+        }
+
+        Map<String, String> missing = new LinkedHashMap<>(namesByNormalized);
+        tags.forEach(tag -> missing.remove(tag.getNormalizedName()));
+        tagRepository.insertIgnoringExisting(missing);
+        // rows may have come from a concurrent post, so re-read with a locking (latest-committed) read
+        tags.addAll(tagRepository.findForShareByNormalizedNameIn(missing.keySet()));
+        return tags;
     }
 
     // update post
 //    @PreAuthorize("hasRole('ADMIN') or @securityUtils.isOwner(@postRepository.findById(#postId).orElse(null))")
     public PostDetailResponseDTO updatePost(long id, PostRequestDTO request) {
-        Post existingPost = postRepository.findById(id)
+        Post existingPost = postRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", id));
 
         // security check
@@ -181,7 +294,7 @@ public class PostService {
 
         postRepository.save(existingPost);
 
-        return postMapper.toDetailDTO(existingPost,securityUtils.getCurrentUser());
+        return postMapper.toDetailDTO(existingPost, securityUtils.getCurrentUserId());
     }
 
 
@@ -189,7 +302,7 @@ public class PostService {
 //    @PreAuthorize("hasRole('ADMIN') or @securityUtils.isOwner(@postRepository.findById(#postId).orElse(null))")
     @Transactional
     public void softDeletePost(Long postId) {
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findActiveById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", postId));
 
         User currentUser = securityUtils.getCurrentUser();
@@ -200,6 +313,8 @@ public class PostService {
         post.setDeletedAt(LocalDateTime.now());
         post.setDeletedBy(currentUser);
         postRepository.save(post);
+        userStatsRepository.adjustPostCounts(post.getUser().getId(), -1, 0);
+        timelineService.onPostDeleted(postId);
     }
 
     // restore soft-deleted post
@@ -210,29 +325,37 @@ public class PostService {
         Post post = postRepository.findDeletedById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Soft-deleted Post", postId));
 
-        User currentUser = securityUtils.getCurrentUser();
-
         // security check
         securityUtils.checkOwnerOrAdmin(post);
 
         post.setDeletedAt(null);
         post.setDeletedBy(null);
         postRepository.save(post);
+        userStatsRepository.adjustPostCounts(post.getUser().getId(), 1, 0);
+
+        // put it back into followers' timelines at its original position
+        publisher.publishEvent(PostPublishedEvent.builder()
+                .postId(post.getId())
+                .authorId(post.getUser().getId())
+                .createdAt(post.getCreatedAt())
+                .build());
 
-        return postMapper.toDetailDTO(post,currentUser);
+        return postMapper.toDetailDTO(post, securityUtils.getCurrentUserId());
     }
 
     // hard delete post
 //    @PreAuthorize("hasRole('ADMIN') or @securityUtils.isOwner(@postRepository.findById(#postId).orElse(null))")
     @Transactional
     public void hardDeletePost(Long postId) {
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findActiveById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", postId));
 
         // security check
         securityUtils.checkOwnerOrAdmin(post);
 
-        // permanent removal
+        // permanent removal, its likes go with it
+        likeRepository.deleteByPostId(postId);
         postRepository.deleteById(postId);
+        userStatsRepository.adjustPostCounts(post.getUser().getId(), -1, -post.getLikeCount());
     }
 }
@@ -2,25 +2,36 @@ package com.example.communityforum.service;
 
 import com.example.communityforum.dto.file.FileUploadResponseDTO;
 import com.example.communityforum.dto.post.PostSummaryDTO;
+import com.example.communityforum.dto.post.UserPostsResponseDTO;
+import com.example.communityforum.dto.user.ProfileOverviewDTO;
 import com.example.communityforum.dto.user.ProfileRequest;
 import com.example.communityforum.dto.user.ProfileResponseDTO;
 import com.example.communityforum.dto.user.ProfileStatsDTO;
 import com.example.communityforum.exception.FileValidationException;
 import com.example.communityforum.exception.ResourceNotFoundException;
+import com.example.communityforum.graph.SocialGraphIndex;
 import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.entity.UserStats;
 import com.example.communityforum.persistence.repository.FollowRepository;
 import com.example.communityforum.persistence.repository.LikeRepository;
 import com.example.communityforum.persistence.repository.PostRepository;
 import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.UserStatsRepository;
+import com.example.communityforum.persistence.repository.projection.UserStatsProjection;
 import com.example.communityforum.security.SecurityUtils;
+import com.example.communityforum.security.TokenVersionCache;
 import jakarta.transaction.Transactional;
 import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,21 +42,37 @@ public class ProfileService {
     private final LikeRepository likeRepository;
     private final FollowRepository  followRepository;
     private final SecurityUtils securityUtils;
+    private final TokenVersionCache tokenVersionCache;
+    private final SocialGraphIndex socialGraphIndex;
+    private final UserStatsRepository userStatsRepository;
+    private final PostService postService;
+    private final Executor profileExecutor;
 
     @Value("${profile.avatar.max-size-bytes:2097152}") // 2 MB default
     private long maxAvatarSize;
+    private static final int MAX_OVERVIEW_POSTS = 50;
     private static final List<String> ALLOWED_TYPES = List.of("image/jpeg", "image/png", "image/jpg", "image/JPG" , "image/gif");
 
     public ProfileService(UserRepository userRepository, PostRepository postRepository,
                           FileStorageService fileStorageService, LikeRepository likeRepository,
                           FollowRepository followRepository,
-                          SecurityUtils securityUtils) {
+                          SecurityUtils securityUtils,
+                          TokenVersionCache tokenVersionCache,
+                          SocialGraphIndex socialGraphIndex,
+                          UserStatsRepository userStatsRepository,
+                          PostService postService,
+                          @Qualifier("profileQueryExecutor") Executor profileExecutor) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.fileStorageService = fileStorageService;
         this.likeRepository  = likeRepository;
         this.followRepository = followRepository;
         this.securityUtils = securityUtils;
+        this.tokenVersionCache = tokenVersionCache;
+        this.socialGraphIndex = socialGraphIndex;
+        this.userStatsRepository = userStatsRepository;
+        this.postService = postService;
+        this.profileExecutor = profileExecutor;
     }
 
     // Get current user's profile
@@ -66,11 +93,66 @@ public class ProfileService {
         return toProfileDTO(user);
     }
 
+    /**
+     * Profile, relationship flags, stats and the first page of posts in one call.
+     * The three lookups after the user load are independent, so they run in parallel
+     * on a bounded executor; the viewer id is resolved here because the security
+     * context doesn't follow the work onto pool threads. The endpoint runs without
+     * open-in-view (OpenEntityManagerInViewConfig), so the request thread doesn't hold
+     * a connection while it waits for the tasks.
+     */
+    public ProfileOverviewDTO getProfileOverview(String username, int pageSize) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", username));
+        Long viewerId = securityUtils.getCurrentUserId();
+        int postsPageSize = Math.min(Math.max(pageSize, 1), MAX_OVERVIEW_POSTS);
+
+        CompletableFuture<Relationship> relationship =
+                CompletableFuture.supplyAsync(() -> getRelationship(viewerId, user.getId()), profileExecutor);
+        CompletableFuture<ProfileStatsDTO> stats =
+                CompletableFuture.supplyAsync(() -> getProfileStats(user.getId()), profileExecutor);
+        CompletableFuture<UserPostsResponseDTO> posts =
+                CompletableFuture.supplyAsync(() -> postService.getPostsByUserId(user.getId(), 1, postsPageSize), profileExecutor);
+
+        UserPostsResponseDTO firstPage = join(posts);
+        return ProfileOverviewDTO.builder()
+                .profile(toProfileDTO(user, join(relationship)))
+                .stats(join(stats))
+                .posts(firstPage.getPosts())
+                .pageSize(postsPageSize)
+                .totalPosts(firstPage.getTotalPosts())
+                .build();
+    }
+
+    // rethrows the task's own exception so the usual error mapping applies
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private record Relationship(boolean followed, boolean friend) {}
+
+    // the index may disable itself between the two lookups, so either empty answer falls back to the query
+    private Relationship getRelationship(Long viewerId, Long userId) {
+        return socialGraphIndex.follows(viewerId, userId)
+                .flatMap(followed -> socialGraphIndex.isFriend(viewerId, userId)
+                        .map(friend -> new Relationship(followed, friend)))
+                .orElseGet(() -> {
+                    List<Long> directions = followRepository.findFollowDirections(viewerId, userId);
+                    boolean followed = directions.contains(viewerId);
+                    return new Relationship(followed, followed && directions.contains(userId));
+                });
+    }
+
     private ProfileResponseDTO toProfileDTO(User user) {
-        User currentUser = securityUtils.getCurrentUser();
-        boolean followed = followRepository.existsByFollowerAndFollowing(currentUser, user);
-        boolean followsBack = followRepository.existsByFollowerAndFollowing(user, currentUser);
-        boolean isFriend = followed && followsBack;
+        return toProfileDTO(user, getRelationship(securityUtils.getCurrentUserId(), user.getId()));
+    }
+
+    private ProfileResponseDTO toProfileDTO(User user, Relationship relationship) {
         return ProfileResponseDTO.builder()
                 .id(user.getId())
                 .fullname(user.getFullname())
@@ -80,21 +162,32 @@ public class ProfileService {
                 .avatar_path(user.getAvatarPath())
                 .bio(user.getBio())
                 .createdAt(user.getCreatedAt())
-                .followed(followed)
-                .isFriend(isFriend)
+                .followed(relationship.followed())
+                .isFriend(relationship.friend())
                 .build();
     }
 
-    // Get profile statistics
+    // Get profile statistics from the maintained user_stats row; read-only, so a user the nightly
+    // job hasn't seeded yet gets the counts computed on the fly without storing them
     public ProfileStatsDTO getProfileStats(long userId) {
-        var p = userRepository.getProfileCounts(userId);
+        UserStats stats = userStatsRepository.findById(userId).orElse(null);
+        if (stats != null) {
+            return new ProfileStatsDTO(
+                    stats.getFollowingCount(),
+                    stats.getFollowerCount(),
+                    stats.getPostCount(),
+                    stats.getReceivedLikeCount());
+        }
+        UserStatsProjection computed = userStatsRepository.computeStats(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
         return new ProfileStatsDTO(
-                p.getFollowingCount(),
-                p.getFollowerCount(),
-                p.getPostCount(),
-                p.getPostLikeCount());
+                computed.getFollowingCount(),
+                computed.getFollowerCount(),
+                computed.getPostCount(),
+                computed.getReceivedLikeCount());
     }
 
+
     private String generateExcerpt(String content) {
         if (content == null)
             return "";
@@ -113,6 +206,7 @@ public class ProfileService {
                 throw new FileValidationException("Username already exists");
             }
             user.setUsername(request.getUsername());
+            tokenVersionCache.evict(userId); // stateless JWT principals read the username from the cache
         }
         if (request.getBio() != null)
             user.setBio(request.getBio());
@@ -133,6 +227,7 @@ public class ProfileService {
                 throw new FileValidationException("Username already exists");
             }
             user.setUsername(request.getUsername());
+            tokenVersionCache.evict(userId); // stateless JWT principals read the username from the cache
         }
         if (request.getBio() != null)
             user.setBio(request.getBio());
@@ -0,0 +1,148 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.events.PostPublishedEvent;
+import com.example.communityforum.graph.SocialGraphIndex;
+import com.example.communityforum.persistence.entity.Post;
+import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.FollowRepository;
+import com.example.communityforum.persistence.repository.PostRepository;
+import com.example.communityforum.persistence.repository.TimelineRepository;
+import com.example.communityforum.persistence.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Home timeline for followed users. Posts are fanned out on write into timeline_entries;
+ * authors with more followers than the fan-out threshold are skipped at write time and
+ * their posts are merged in at read time instead. The flag is re-evaluated on each publish
+ * with a hysteresis band: it is set above the threshold and cleared only once the count drops
+ * below {@code clear-ratio} of it, so an author hovering at the threshold doesn't flip on every
+ * post. When it clears, the author's recent posts are backfilled into every follower's
+ * timeline in follower-id chunks, since followers stop pulling them at read time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    static final Comparator<Post> FEED_ORDER = Comparator
+            .comparing(Post::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+
+    private final TimelineRepository timelineRepository;
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final SocialGraphIndex socialGraphIndex;
+
+    @Value("${timeline.fanout.max-followers:10000}")
+    private long maxFanoutFollowers;
+
+    @Value("${timeline.fanout.clear-ratio:0.8}")
+    private double clearRatio;
+
+    @Value("${timeline.backfill-size:50}")
+    private int backfillSize;
+
+    @Value("${timeline.backfill-chunk-size:1000}")
+    private int backfillChunkSize;
+
+    // fan-out-on-write for a freshly published post; each statement commits on its own,
+    // so a large backfill doesn't hold one long transaction
+    public void fanOut(PostPublishedEvent event) {
+        User author = userRepository.findById(event.getAuthorId()).orElse(null);
+        if (author == null) return;
+
+        long followers = socialGraphIndex.followerCount(author.getId())
+                .orElseGet(() -> followRepository.countByFollowing_Id(author.getId()));
+        boolean highFanout = author.isHighFanout()
+                ? followers >= maxFanoutFollowers * clearRatio
+                : followers > maxFanoutFollowers;
+        if (author.isHighFanout() != highFanout) {
+            // cleared before the backfill, so follows made meanwhile are seeded by onFollow
+            userRepository.updateHighFanout(author.getId(), highFanout);
+            if (!highFanout) {
+                int rows = backfillFollowers(author.getId());
+                log.debug("Author {} left high-fanout mode, backfilled {} timeline rows", author.getId(), rows);
+            }
+        }
+        if (highFanout) {
+            log.debug("Skipping fan-out for high-fanout author {}", author.getId());
+            return;
+        }
+
+        int rows = timelineRepository.fanOut(event.getPostId(), author.getId(), event.getCreatedAt());
+        log.debug("Fanned out post {} to {} timelines", event.getPostId(), rows);
+    }
+
+    private int backfillFollowers(Long authorId) {
+        int rows = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> followerIds = followRepository.findFollowerIdsAfter(authorId, afterId, Limit.of(backfillChunkSize));
+            if (followerIds.isEmpty()) {
+                return rows;
+            }
+            afterId = followerIds.get(followerIds.size() - 1);
+            rows += timelineRepository.backfillFollowers(authorId, followerIds.get(0), afterId, backfillSize);
+        }
+    }
+
+    // new follow: seed the follower's timeline with the author's recent posts;
+    // called after the follow commits (TimelineFanoutListener)
+    @Transactional
+    public void onFollow(Long followerId, Long followingId) {
+        timelineRepository.backfill(followerId, followingId, backfillSize);
+    }
+
+    // soft delete: drop the post from every timeline; a restore fans it out again
+    @Transactional
+    public void onPostDeleted(Long postId) {
+        timelineRepository.deleteByPostId(postId);
+    }
+
+    // unfollow: drop the author's posts from the follower's timeline
+    @Transactional
+    public void onUnfollow(Long followerId, Long followingId) {
+        timelineRepository.deleteByOwnerAndAuthor(followerId, followingId);
+    }
+
+    /**
+     * Reads up to {@code limit} posts of the user's following feed after the given position,
+     * merging materialized timeline rows with on-demand posts from high-fanout authors.
+     */
+    @Transactional(readOnly = true)
+    public List<Post> loadFollowingPage(Long userId, @Nullable CursorCodec.TimeIdCursor after, int limit) {
+        Limit rows = Limit.of(limit);
+
+        List<Long> postIds = after == null
+                ? timelineRepository.findPostIdsFirstPage(userId, rows)
+                : timelineRepository.findPostIdsAfter(userId, after.createdAt(), after.id(), rows);
+
+        Map<Long, Post> posts = new LinkedHashMap<>();
+        postRepository.findAllById(postIds).forEach(post -> posts.put(post.getId(), post));
+
+        List<Long> highFanoutAuthors = followRepository.findHighFanoutFollowingIds(userId);
+        if (!highFanoutAuthors.isEmpty()) {
+            List<Post> pulled = after == null
+                    ? postRepository.findByAuthorsFirstPage(highFanoutAuthors, rows)
+                    : postRepository.findByAuthorsAfter(highFanoutAuthors, after.createdAt(), after.id(), rows);
+            pulled.forEach(post -> posts.putIfAbsent(post.getId(), post));
+        }
+
+        return posts.values().stream()
+                .sorted(FEED_ORDER)
+                .limit(limit)
+                .toList();
+    }
+}
@@ -6,8 +6,10 @@ import com.example.communityforum.exception.DuplicateResourceException;
 import com.example.communityforum.exception.ResourceNotFoundException;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.UserStatsRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,14 +17,18 @@ import java.util.Optional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UserStatsRepository userStatsRepository;
     private final PasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserStatsRepository userStatsRepository,
+                       PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
+        this.userStatsRepository = userStatsRepository;
         this.passwordEncoder = passwordEncoder;
     }
 
-    // Create new user
+    // Create new user together with its zeroed stats row
+    @Transactional
     public UserResponseDTO createUser(UserRequestDTO dto) {
         if (userRepository.existsByUsername(dto.getUsername())) {
             throw new DuplicateResourceException("Username is already in use");
@@ -36,6 +42,7 @@ public class UserService {
         user.setEmail(dto.getEmail());
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
         User savedUser = userRepository.save(user);
+        userStatsRepository.seed(savedUser.getId());
         return new UserResponseDTO(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
     }
 
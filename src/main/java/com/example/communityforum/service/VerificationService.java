@@ -7,6 +7,7 @@ import com.example.communityforum.persistence.entity.VerificationToken;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.VerificationTokenRepository;
 import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.security.TokenVersionCache;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
@@ -28,6 +29,7 @@ public class VerificationService {
     private final ApplicationEventPublisher publisher;
     private final SpringTemplateEngine templateEngine;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
@@ -44,13 +46,15 @@ public class VerificationService {
                                EmailService emailService,
                                ApplicationEventPublisher publisher,
                                SpringTemplateEngine templateEngine,
-                               PasswordEncoder passwordEncoder) {
+                               PasswordEncoder passwordEncoder,
+                               TokenVersionCache tokenVersionCache) {
         this.tokenRepo = tokenRepo;
         this.userRepo = userRepo;
         this.emailService = emailService;
         this.publisher = publisher;
         this.templateEngine = templateEngine;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
 
     }
 
@@ -91,6 +95,7 @@ public class VerificationService {
         user.setEmailVerified(true);
         user.setEmailVerifiedAt(LocalDateTime.now());
         userRepo.save(user);
+        tokenVersionCache.evict(user.getId());
 
         evt.setUsed(true);
         tokenRepo.save(evt);
@@ -166,6 +171,7 @@ public class VerificationService {
         user.setEmailVerified(true);
         user.setEmailVerifiedAt(LocalDateTime.now());
         userRepo.save(user);
+        tokenVersionCache.evict(user.getId());
 
         evt.setUsed(true);
         tokenRepo.save(evt);
@@ -223,7 +229,9 @@ public class VerificationService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1); // sign out existing sessions
         userRepo.save(user);
+        tokenVersionCache.evict(user.getId());
 
         token.setUsed(true);
         tokenRepo.save(token);
@@ -0,0 +1,38 @@
+package com.example.communityforum.timeline;
+
+import com.example.communityforum.events.NewFollowerEvent;
+import com.example.communityforum.events.PostPublishedEvent;
+import com.example.communityforum.service.TimelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimelineFanoutListener {
+    private final TimelineService timelineService;
+
+    @Async("maintenanceExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostPublished(PostPublishedEvent event) {
+        try {
+            timelineService.fanOut(event);
+        } catch (Exception e) {
+            log.error("Failed to fan out post {}", event.getPostId(), e);
+        }
+    }
+
+    @Async("maintenanceExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowed(NewFollowerEvent event) {
+        try {
+            timelineService.onFollow(event.getFollowerId(), event.getFollowingId());
+        } catch (Exception e) {
+            log.error("Failed to backfill timeline of user {} for {}", event.getFollowerId(), event.getFollowingId(), e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.communityforum.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncExecutorConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Executor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    // every executor sized to one running task and one queued task
+    private AsyncExecutorConfig config(boolean virtualThreads) {
+        MockEnvironment env = new MockEnvironment();
+        for (String name : new String[]{"mail", "maintenance"}) {
+            env.setProperty("executors." + name + ".core-size", "1");
+            env.setProperty("executors." + name + ".max-size", "1");
+            env.setProperty("executors." + name + ".queue-capacity", "1");
+            env.setProperty("executors." + name + ".concurrency-limit", "1");
+        }
+        AsyncExecutorConfig config = new AsyncExecutorConfig(env, registry);
+        ReflectionTestUtils.setField(config, "virtualThreads", virtualThreads);
+        return config;
+    }
+
+    private Runnable blocking(CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private double rejected(String name, String policy) {
+        return registry.get("executor.rejected").tags("name", name, "policy", policy).counter().count();
+    }
+
+    @Test
+    void pool_discard_dropsAndCountsTasksPastTheQueue() throws InterruptedException {
+        executor = config(false).mailExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(blocking(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {}); // fills the queue
+
+        AtomicBoolean ran = new AtomicBoolean();
+        executor.execute(() -> ran.set(true));
+
+        assertFalse(ran.get());
+        assertEquals(1.0, rejected("mail", "discard"));
+    }
+
+    @Test
+    void pool_callerRuns_runsTasksPastTheQueueOnTheSubmitter() throws InterruptedException {
+        executor = config(false).maintenanceExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(blocking(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {}); // fills the queue
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1.0, rejected("maintenance", "caller-runs"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtual_discard_dropsAndCountsTasksPastTheLimit() throws InterruptedException {
+        executor = config(true).mailExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(blocking(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicBoolean ran = new AtomicBoolean();
+        executor.execute(() -> ran.set(true)); // returns at once instead of waiting for the slot
+
+        assertFalse(ran.get());
+        assertEquals(1.0, rejected("mail", "discard"));
+
+        // the permit comes back when the running task ends
+        release.countDown();
+        CountDownLatch next = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (next.getCount() > 0 && System.nanoTime() < deadline) {
+            executor.execute(next::countDown);
+            next.await(10, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, next.getCount());
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtual_throttle_makesSubmittersWaitAndCountsThem() throws InterruptedException {
+        executor = config(true).maintenanceExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(blocking(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch ran = new CountDownLatch(1);
+        Thread submitter = new Thread(() -> executor.execute(ran::countDown));
+        submitter.start();
+        submitter.join(200);
+        assertTrue(submitter.isAlive()); // parked on the concurrency limit
+
+        release.countDown();
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get("executor.throttled").tag("name", "maintenance").counter().count());
+    }
+}
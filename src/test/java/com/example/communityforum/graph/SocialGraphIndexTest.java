@@ -0,0 +1,80 @@
+package com.example.communityforum.graph;
+
+import com.example.communityforum.events.NewFollowerEvent;
+import com.example.communityforum.events.UnfollowedEvent;
+import com.example.communityforum.persistence.repository.FollowRepository;
+import com.example.communityforum.persistence.repository.projection.FollowEdgeProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SocialGraphIndexTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    private SocialGraphIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new SocialGraphIndex(followRepository, Runnable::run);
+    }
+
+    @Test
+    void notReady_answersEmpty() {
+        assertFalse(index.isReady());
+        assertEquals(Optional.empty(), index.follows(1L, 2L));
+        assertEquals(OptionalLong.empty(), index.followerCount(2L));
+    }
+
+    @Test
+    void warmUp_loadsEdges() {
+        List<FollowEdgeProjection> edges = List.of(edge(1, 1, 2), edge(2, 2, 1), edge(3, 3, 2));
+        when(followRepository.findEdgesAfter(anyLong(), any())).thenReturn(edges);
+
+        index.warmUp();
+
+        assertTrue(index.isReady());
+        assertEquals(Optional.of(true), index.follows(1L, 2L));
+        assertEquals(Optional.of(true), index.isFriend(1L, 2L));
+        assertEquals(Optional.of(false), index.isFriend(3L, 2L));
+        assertEquals(OptionalLong.of(2), index.followerCount(2L));
+        assertEquals(Optional.of(Set.of(2L)), index.followedAmong(3L, List.of(1L, 2L)));
+    }
+
+    @Test
+    void followEvents_updateLoadedIndex() {
+        List<FollowEdgeProjection> edges = List.of(edge(1, 1, 2));
+        when(followRepository.findEdgesAfter(anyLong(), any())).thenReturn(edges);
+        index.warmUp();
+
+        index.onFollowed(new NewFollowerEvent(2L, 1L));
+        index.onFollowed(new NewFollowerEvent(2L, 1L)); // duplicate is a no-op
+        index.onUnfollowed(new UnfollowedEvent(1L, 2L));
+
+        assertEquals(Optional.of(true), index.follows(2L, 1L));
+        assertEquals(Optional.of(false), index.follows(1L, 2L));
+        assertEquals(OptionalLong.of(1), index.followerCount(1L));
+        assertEquals(OptionalLong.of(0), index.followerCount(2L));
+    }
+
+    private static FollowEdgeProjection edge(long id, long followerId, long followingId) {
+        FollowEdgeProjection edge = mock(FollowEdgeProjection.class);
+        when(edge.getId()).thenReturn(id);
+        when(edge.getFollowerId()).thenReturn(followerId);
+        when(edge.getFollowingId()).thenReturn(followingId);
+        return edge;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.communityforum.integration;
 
+import com.example.communityforum.dto.CursorPageResponse;
 import com.example.communityforum.dto.PageResponse;
 import com.example.communityforum.dto.comment.CommentRequestDTO;
 import com.example.communityforum.dto.comment.CommentResponseDTO;
@@ -10,7 +11,9 @@ import com.example.communityforum.persistence.repository.CommentRepository;
 import com.example.communityforum.persistence.repository.PostRepository;
 import com.example.communityforum.persistence.repository.UserRepository;
 import com.example.communityforum.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,9 +22,11 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -49,13 +54,16 @@ class CommentControllerIntegrationTest {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User user;
     private String userToken;
     private Post post;
 
     @BeforeEach
     void setUp() {
-        commentRepository.deleteAll();
+        deleteComments();
         postRepository.deleteAll();
         userRepository.deleteAll();
 
@@ -82,6 +90,15 @@ class CommentControllerIntegrationTest {
                 });
     }
 
+    // in SQL: the repository can't see soft-deleted comments, which still hold replies through
+    // parent_comment_id. Also runs after each test so reply trees don't break other classes'
+    // cleanup of the shared database
+    @AfterEach
+    void deleteComments() {
+        jdbcTemplate.update("UPDATE comments SET parent_comment_id = NULL");
+        jdbcTemplate.update("DELETE FROM comments");
+    }
+
     private Comment createComment(String content) {
         Comment comment = Comment.builder()
                 .content(content)
@@ -91,6 +108,123 @@ class CommentControllerIntegrationTest {
         return commentRepository.save(comment);
     }
 
+    private Comment createReply(Comment parent, String content) {
+        Comment reply = Comment.builder()
+                .content(content)
+                .user(user)
+                .post(post)
+                .parentComment(parent)
+                .depth(parent.getDepth() + 1)
+                .rootId(parent.getRootId() != null ? parent.getRootId() : parent.getId())
+                .build();
+        return commentRepository.save(reply);
+    }
+
+    @Test
+    void testThreadPreviewCountAndReplies_hideRepliesUnderDeletedComment() {
+        Comment root = commentRepository.save(Comment.builder()
+                .content("Root")
+                .user(user)
+                .post(post)
+                .depth(1)
+                .build());
+        Comment first = createReply(root, "First");
+        Comment deleted = createReply(root, "Deleted");
+        createReply(deleted, "Under deleted");
+        Comment last = createReply(root, "Last");
+        deleted.setDeletedAt(LocalDateTime.now());
+        commentRepository.save(deleted);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(userToken);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        ResponseEntity<JsonNode> threads = restTemplate.exchange(
+                "http://localhost:" + port + "/api/comments/post/" + post.getId() + "/threads?replies=1",
+                HttpMethod.GET, request, JsonNode.class);
+
+        assertThat(threads.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode thread = threads.getBody().get("content").get(0);
+        assertThat(thread.get("replyCount").asLong()).isEqualTo(2);
+        assertThat(thread.get("replies")).hasSize(1);
+        assertThat(thread.get("replies").get(0).get("id").asLong()).isEqualTo(first.getId());
+
+        ResponseEntity<CursorPageResponse<CommentResponseDTO>> more = restTemplate.exchange(
+                "http://localhost:" + port + "/api/comments/" + root.getId() + "/replies?cursor="
+                        + thread.get("repliesNextCursor").asText(),
+                HttpMethod.GET, request,
+                new ParameterizedTypeReference<CursorPageResponse<CommentResponseDTO>>() {});
+
+        assertThat(more.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(more.getBody().getContent()).extracting(CommentResponseDTO::getId).containsExactly(last.getId());
+        assertThat(more.getBody().isHasNext()).isFalse();
+
+        ResponseEntity<CursorPageResponse<CommentResponseDTO>> all = restTemplate.exchange(
+                "http://localhost:" + port + "/api/comments/" + root.getId() + "/replies",
+                HttpMethod.GET, request,
+                new ParameterizedTypeReference<CursorPageResponse<CommentResponseDTO>>() {});
+
+        assertThat(all.getBody().getContent()).extracting(CommentResponseDTO::getId)
+                .containsExactly(first.getId(), last.getId());
+    }
+
+    @Test
+    void testAddReply_storesDepthAndRoot_andTreeStopsAtMaxDepth() {
+        CommentResponseDTO root = postComment("Root", null).getBody();
+        CommentResponseDTO reply = postComment("Reply", root.getId()).getBody();
+        CommentResponseDTO nested = postComment("Nested", reply.getId()).getBody();
+
+        Comment storedReply = commentRepository.findById(reply.getId()).orElseThrow();
+        Comment storedNested = commentRepository.findById(nested.getId()).orElseThrow();
+        assertThat(commentRepository.findById(root.getId()).orElseThrow().getRootId()).isNull();
+        assertThat(storedReply.getDepth()).isEqualTo(2);
+        assertThat(storedReply.getRootId()).isEqualTo(root.getId());
+        assertThat(storedNested.getDepth()).isEqualTo(3);
+        assertThat(storedNested.getRootId()).isEqualTo(root.getId());
+
+        // comment.max-depth=3: replying to the third level is refused
+        assertThat(postComment("Too deep", nested.getId()).getStatusCode().is2xxSuccessful()).isFalse();
+
+        // a row below the limit (e.g. written before it was lowered) is left out of the tree
+        commentRepository.save(Comment.builder()
+                .content("Legacy")
+                .user(user)
+                .post(post)
+                .parentComment(storedNested)
+                .depth(4)
+                .rootId(root.getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(userToken);
+        ResponseEntity<List<CommentResponseDTO>> tree = restTemplate.exchange(
+                "http://localhost:" + port + "/api/comments/post/" + post.getId() + "/tree",
+                HttpMethod.GET, new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<CommentResponseDTO>>() {});
+
+        assertThat(tree.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(tree.getBody()).extracting(CommentResponseDTO::getId).containsExactly(root.getId());
+        CommentResponseDTO treeReply = tree.getBody().get(0).getReplies().get(0);
+        assertThat(treeReply.getId()).isEqualTo(reply.getId());
+        CommentResponseDTO treeNested = treeReply.getReplies().get(0);
+        assertThat(treeNested.getId()).isEqualTo(nested.getId());
+        assertThat(treeNested.getReplies()).isEmpty();
+    }
+
+    private ResponseEntity<CommentResponseDTO> postComment(String content, Long parentCommentId) {
+        CommentRequestDTO dto = new CommentRequestDTO();
+        dto.setContent(content);
+        dto.setPostId(post.getId());
+        dto.setParentCommentId(parentCommentId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(userToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.exchange("http://localhost:" + port + "/api/comments", HttpMethod.POST,
+                new HttpEntity<>(dto, headers), CommentResponseDTO.class);
+    }
+
     @Test
     void testGetAllComments_DefaultPagination() {
         for (int i = 1; i <= 12; i++) createComment("Comment " + i);
@@ -0,0 +1,107 @@
+package com.example.communityforum.integration;
+
+import com.example.communityforum.CommunityForumApplication;
+import com.example.communityforum.dto.user.ProfileOverviewDTO;
+import com.example.communityforum.persistence.entity.Post;
+import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.PostRepository;
+import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("ci")
+@SpringBootTest(classes = CommunityForumApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ProfileControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User author;
+    private String viewerToken;
+
+    @BeforeEach
+    void setUp() {
+        // unique names so the rows don't collide with the other test classes sharing the context
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        author = createUser("author" + suffix);
+        viewerToken = jwtUtil.generateToken(createUser("viewer" + suffix));
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setFullname(username);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("password"));
+        user.setRole("USER");
+        user.setEmailVerified(true);
+        return userRepository.save(user);
+    }
+
+    private void createPost(User user, String title) {
+        Post post = new Post();
+        post.setUser(user);
+        post.setTitle(title);
+        post.setSlug(title.toLowerCase().replace(' ', '-') + "-" + user.getId());
+        post.setContent("Content for " + title);
+        postRepository.save(post);
+    }
+
+    private ResponseEntity<ProfileOverviewDTO> getOverview(String username, int pageSize) {
+        String url = "http://localhost:" + port + "/api/profile/" + username + "/overview?pageSize=" + pageSize;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(viewerToken);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), ProfileOverviewDTO.class);
+    }
+
+    @Test
+    void testGetProfileOverview_returnsProfileStatsAndFirstPage() {
+        createPost(author, "First Post");
+        createPost(author, "Second Post");
+        createPost(author, "Third Post");
+
+        ResponseEntity<ProfileOverviewDTO> response = getOverview(author.getUsername(), 2);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ProfileOverviewDTO overview = response.getBody();
+        assertThat(overview).isNotNull();
+        assertThat(overview.getProfile().getUsername()).isEqualTo(author.getUsername());
+        assertThat(overview.getProfile().getFollowed()).isFalse();
+        assertThat(overview.getStats().getPostCount()).isEqualTo(3);
+        assertThat(overview.getStats().getFollowerCount()).isZero();
+        assertThat(overview.getPageSize()).isEqualTo(2);
+        assertThat(overview.getPosts()).hasSize(2);
+        assertThat(overview.getTotalPosts()).isEqualTo(3);
+    }
+
+    @Test
+    void testGetProfileOverview_unknownUser_returns404() {
+        ResponseEntity<ProfileOverviewDTO> response = getOverview("no-such-user", 10);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.communityforum.integration;
+
+import com.example.communityforum.dto.LikeRequestDTO;
+import com.example.communityforum.dto.post.PostDetailResponseDTO;
+import com.example.communityforum.dto.post.PostRequestDTO;
+import com.example.communityforum.dto.user.ProfileStatsDTO;
+import com.example.communityforum.dto.user.UserRequestDTO;
+import com.example.communityforum.mail.EmailService;
+import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.UserStatsRepository;
+import com.example.communityforum.security.JwtUtil;
+import com.example.communityforum.service.LikeWriteBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the mocked mail sender also gives this class its own context and database
+@ActiveProfiles("ci")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserStatsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    // registers through /auth/register, then marks the email verified so the user may post
+    private User register(String name) {
+        UserRequestDTO request = new UserRequestDTO();
+        request.setUsername(name + suffix);
+        request.setEmail(name + suffix + "@example.com");
+        request.setPassword("password123");
+        ResponseEntity<String> response = restTemplate.postForEntity(url("/auth/register"), request, String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        User user = userRepository.findByEmail(request.getEmail()).orElseThrow();
+        user.setEmailVerified(true);
+        return userRepository.save(user);
+    }
+
+    private User createAdmin() {
+        User admin = new User();
+        admin.setFullname("Admin");
+        admin.setUsername("admin" + suffix);
+        admin.setEmail("admin" + suffix + "@example.com");
+        admin.setPassword(new BCryptPasswordEncoder().encode("password"));
+        admin.setRole("ADMIN");
+        admin.setEmailVerified(true);
+        return userRepository.save(admin);
+    }
+
+    private <T> ResponseEntity<T> call(HttpMethod method, String path, User as, Object body, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(jwtUtil.generateToken(as));
+        ResponseEntity<T> response = restTemplate.exchange(url(path), method, new HttpEntity<>(body, headers), type);
+        assertThat(response.getStatusCode().is2xxSuccessful()).as("%s %s -> %s %s", method, path, response.getStatusCode(), response.getBody()).isTrue();
+        return response;
+    }
+
+    private ProfileStatsDTO stats(User user) {
+        return call(HttpMethod.GET, "/api/profile/" + user.getId() + "/stats", user, null, ProfileStatsDTO.class).getBody();
+    }
+
+    private void assertStats(User user, long following, long followers, long posts, long likes) {
+        assertThat(stats(user)).isEqualTo(new ProfileStatsDTO(following, followers, posts, likes));
+    }
+
+    @Test
+    void countersFollowEveryWritePath() {
+        User alice = register("alice");
+        User bob = register("bob");
+        User admin = createAdmin();
+
+        // registration seeds the row, the read path doesn't have to
+        assertThat(userStatsRepository.existsById(alice.getId())).isTrue();
+        assertStats(alice, 0, 0, 0, 0);
+
+        call(HttpMethod.POST, "/api/follows/" + bob.getId(), alice, null, String.class);
+        assertStats(alice, 1, 0, 0, 0);
+        assertStats(bob, 0, 1, 0, 0);
+
+        PostRequestDTO post = new PostRequestDTO();
+        post.setTitle("Counters " + suffix);
+        post.setContent("content");
+        post.setTags(List.of());
+        Long postId = call(HttpMethod.POST, "/api/posts", bob, post, PostDetailResponseDTO.class).getBody().getId();
+        assertStats(bob, 0, 1, 1, 0);
+
+        LikeRequestDTO like = new LikeRequestDTO();
+        like.setTargetId(postId);
+        like.setTargetType(LikeRequestDTO.TargetType.POST);
+        call(HttpMethod.POST, "/api/likes/like", alice, like, String.class);
+        likeWriteBuffer.flush();
+        assertStats(bob, 0, 1, 1, 1);
+
+        call(HttpMethod.DELETE, "/api/posts/" + postId, bob, null, String.class);
+        assertStats(bob, 0, 1, 0, 1); // the like still counts while the post can be restored
+
+        call(HttpMethod.POST, "/api/posts/" + postId + "/restore", admin, null, String.class);
+        assertStats(bob, 0, 1, 1, 1);
+
+        call(HttpMethod.DELETE, "/api/posts/" + postId + "/hard", admin, null, String.class);
+        assertStats(bob, 0, 1, 0, 0);
+
+        call(HttpMethod.DELETE, "/api/follows/" + bob.getId(), alice, null, String.class);
+        assertStats(alice, 0, 0, 0, 0);
+        assertStats(bob, 0, 0, 0, 0);
+    }
+
+    @Test
+    void missingRow_isComputedWithoutBeingStored() {
+        User alice = register("alice");
+        User bob = register("bob");
+        call(HttpMethod.POST, "/api/follows/" + bob.getId(), alice, null, String.class);
+        userStatsRepository.deleteById(bob.getId());
+
+        assertStats(bob, 0, 1, 0, 0);
+        assertThat(userStatsRepository.existsById(bob.getId())).isFalse();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.communityforum.outbox;
+
+import com.example.communityforum.dto.LikeRequestDTO;
+import com.example.communityforum.events.LikeToggledEvent;
+import com.example.communityforum.notification.NotificationEventListener;
+import com.example.communityforum.persistence.entity.OutboxEvent;
+import com.example.communityforum.persistence.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private NotificationEventListener notifications;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        dispatcher = new OutboxDispatcher(outboxEventRepository, transactionTemplate, objectMapper,
+                notifications, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    void drain_deliversEventAndDeletesRow() throws Exception {
+        OutboxEvent row = likeRow(1L);
+        when(outboxEventRepository.findDeliverable(any(), anyInt(), any())).thenReturn(List.of(row));
+        when(outboxEventRepository.lockForDelivery(eq(1L), any(), anyInt())).thenReturn(Optional.of(1L));
+
+        dispatcher.drain();
+
+        ArgumentCaptor<LikeToggledEvent> event = ArgumentCaptor.forClass(LikeToggledEvent.class);
+        verify(notifications).handleLikeToggled(event.capture());
+        assertTrue(event.getValue().getNowLiked());
+        assertEquals(10L, event.getValue().getTargetId());
+        verify(outboxEventRepository).deleteById(1L);
+        assertEquals(1.0, meterRegistry.counter("outbox.dispatched").count());
+    }
+
+    @Test
+    void rowLockedByAnotherNode_isSkipped() throws Exception {
+        when(outboxEventRepository.findDeliverable(any(), anyInt(), any())).thenReturn(List.of(likeRow(1L)));
+        when(outboxEventRepository.lockForDelivery(eq(1L), any(), anyInt())).thenReturn(Optional.empty());
+
+        dispatcher.drain();
+
+        verifyNoInteractions(notifications);
+        verify(outboxEventRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void failedDelivery_isKeptForRetry() throws Exception {
+        when(outboxEventRepository.findDeliverable(any(), anyInt(), any())).thenReturn(List.of(likeRow(1L)));
+        when(outboxEventRepository.lockForDelivery(eq(1L), any(), anyInt())).thenReturn(Optional.of(1L));
+        doThrow(new IllegalStateException("websocket down")).when(notifications).handleLikeToggled(any());
+
+        dispatcher.drain();
+
+        verify(outboxEventRepository, never()).deleteById(any());
+        verify(outboxEventRepository).recordFailure(eq(1L), any(), contains("websocket down"));
+        assertEquals(1.0, meterRegistry.counter("outbox.failed").count());
+    }
+
+    @Test
+    void drain_publishesDeadRowCount() {
+        when(outboxEventRepository.findDeliverable(any(), anyInt(), any())).thenReturn(List.of());
+        when(outboxEventRepository.countDead(anyInt())).thenReturn(3L);
+
+        dispatcher.drain();
+
+        assertEquals(3.0, meterRegistry.get("outbox.dead").gauge().value());
+    }
+
+    private OutboxEvent likeRow(Long id) throws Exception {
+        LikeToggledEvent event = LikeToggledEvent.builder()
+                .actorId(1L)
+                .ownerId(2L)
+                .targetType(LikeRequestDTO.TargetType.POST)
+                .targetId(10L)
+                .nowLiked(true)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType("LikeToggledEvent")
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(now)
+                .availableAt(now)
+                .build();
+    }
+}
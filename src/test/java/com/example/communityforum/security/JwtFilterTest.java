@@ -2,6 +2,8 @@ package com.example.communityforum.security;
 
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +15,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.Optional;
@@ -24,6 +27,7 @@ class JwtFilterTest {
 
     private JwtUtil jwtUtil;
     private UserRepository userRepository;
+    private TokenVersionCache tokenVersionCache;
     private JwtAuthenticationFilter jwtFilter;
     private FilterChain filterChain;
 
@@ -31,7 +35,8 @@ class JwtFilterTest {
     void setUp() {
         jwtUtil = mock(JwtUtil.class);
         userRepository = mock(UserRepository.class);
-        jwtFilter = new JwtAuthenticationFilter(jwtUtil, userRepository);
+        tokenVersionCache = mock(TokenVersionCache.class);
+        jwtFilter = new JwtAuthenticationFilter(jwtUtil, userRepository, tokenVersionCache);
         filterChain = mock(FilterChain.class);
 
         SecurityContextHolder.clearContext(); // clear context before each test
@@ -67,6 +72,7 @@ class JwtFilterTest {
                 .getPrincipal();
         assertEquals("alice", authenticatedUser.getUsername());
         assertTrue(authenticatedUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        assertEquals(1L, assertInstanceOf(AuthenticatedUser.class, authenticatedUser).getId());
 
         // Verify filter chain continues
         verify(filterChain, times(1)).doFilter(request, response);
@@ -102,4 +108,73 @@ class JwtFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
     }
+
+    @Test
+    void testDoFilterInternal_Stateless_ShouldAuthenticateFromClaimsWithoutLoadingUser() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("Authorization", "Bearer valid-token");
+
+        Claims claims = Jwts.claims().setSubject("alice");
+        claims.put("uid", 1L);
+        claims.put("role", "ADMIN");
+        claims.put("ver", 2);
+        when(jwtUtil.parseClaims("valid-token")).thenReturn(claims);
+        when(tokenVersionCache.get(1L)).thenReturn(Optional.of(new TokenVersionCache.TokenState("alice", 2, true, "ADMIN")));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal();
+        assertEquals(1L, principal.getId());
+        assertTrue(principal.isAdmin());
+        assertTrue(principal.isEmailVerified());
+        verifyNoInteractions(userRepository);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_Stateless_WithRevokedTokenVersion_ShouldNotAuthenticate() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("Authorization", "Bearer old-token");
+
+        Claims claims = Jwts.claims().setSubject("alice");
+        claims.put("uid", 1L);
+        claims.put("role", "USER");
+        claims.put("ver", 1);
+        when(jwtUtil.parseClaims("old-token")).thenReturn(claims);
+        when(tokenVersionCache.get(1L)).thenReturn(Optional.of(new TokenVersionCache.TokenState("alice", 2, true, "USER")));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_Stateless_WithStaleRoleClaim_ShouldUseCurrentRole() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("Authorization", "Bearer admin-token");
+
+        Claims claims = Jwts.claims().setSubject("alice");
+        claims.put("uid", 1L);
+        claims.put("role", "ADMIN");
+        claims.put("ver", 2);
+        when(jwtUtil.parseClaims("admin-token")).thenReturn(claims);
+        // demoted after the token was issued
+        when(tokenVersionCache.get(1L)).thenReturn(Optional.of(new TokenVersionCache.TokenState("alice", 2, true, "USER")));
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal();
+        assertFalse(principal.isAdmin());
+        assertEquals("USER", principal.getRole());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.communityforum.security;
+
+import com.example.communityforum.persistence.entity.User;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(100, meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtMTIzNA==");
+    }
+
+    private String tokenFor(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("alice");
+        user.setRole("USER");
+        return jwtUtil.generateToken(user);
+    }
+
+    @Test
+    void repeatedParsing_ShouldHitClaimsCache() {
+        String token = tokenFor(1L);
+
+        assertEquals(1L, jwtUtil.extractUserId(token));
+        assertEquals("alice", jwtUtil.extractUsername(token));
+        assertTrue(jwtUtil.validateToken(token, 1L));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "miss")
+                .functionCounter().count());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit")
+                .functionCounter().count() >= 2);
+    }
+
+    @Test
+    void tamperedToken_ShouldBeRejectedEvenAfterOriginalWasCached() {
+        String token = tokenFor(1L);
+        jwtUtil.parseClaims(token);
+
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + tokenFor(2L).split("\\.")[1] + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> jwtUtil.parseClaims(forged));
+        assertNull(jwtUtil.extractUserId(forged));
+    }
+}
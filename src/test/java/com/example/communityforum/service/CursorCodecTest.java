@@ -0,0 +1,41 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.exception.HttpStatusException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void timeIdCursor_roundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+
+        String cursor = CursorCodec.encode(createdAt, 42L);
+        CursorCodec.TimeIdCursor decoded = CursorCodec.decodeTimeId(cursor);
+
+        assertEquals(createdAt, decoded.createdAt());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void idCursor_roundTrips() {
+        assertEquals(7L, CursorCodec.decodeId(CursorCodec.encodeId(7L)));
+    }
+
+    @Test
+    void cursor_isUrlSafe() {
+        String cursor = CursorCodec.encode(LocalDateTime.of(2025, 1, 1, 0, 0), Long.MAX_VALUE);
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void malformedCursor_throwsBadRequest() {
+        HttpStatusException ex = assertThrows(HttpStatusException.class, () -> CursorCodec.decodeTimeId("not-a-cursor"));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        assertThrows(HttpStatusException.class, () -> CursorCodec.decodeId("%%%"));
+    }
+}
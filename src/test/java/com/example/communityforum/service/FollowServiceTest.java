@@ -0,0 +1,259 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.dto.CursorPageResponse;
+import com.example.communityforum.dto.user.FollowUserDTO;
+import com.example.communityforum.events.NewFollowerEvent;
+import com.example.communityforum.events.UnfollowedEvent;
+import com.example.communityforum.exception.HttpStatusException;
+import com.example.communityforum.exception.ResourceNotFoundException;
+import com.example.communityforum.graph.SocialGraphIndex;
+import com.example.communityforum.outbox.OutboxPublisher;
+import com.example.communityforum.persistence.repository.FollowRepository;
+import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.UserStatsRepository;
+import com.example.communityforum.persistence.repository.projection.FollowListProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FollowServiceTest {
+
+    private static final Long ALICE = 1L;
+    private static final Long BOB = 2L;
+
+    @Mock private FollowRepository followRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private UserStatsRepository userStatsRepository;
+    @Mock private ApplicationEventPublisher publisher;
+    @Mock private OutboxPublisher outboxPublisher;
+    @Mock private TimelineService timelineService;
+    @Mock private SocialGraphIndex socialGraphIndex;
+
+    private FollowService followService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        followService = new FollowService(followRepository, userRepository, userStatsRepository, publisher,
+                outboxPublisher, timelineService, socialGraphIndex);
+    }
+
+    @Test
+    void followUser_insertsEdgeAndMovesCounters() {
+        when(followRepository.insertFollow(ALICE, BOB)).thenReturn(1);
+
+        followService.followUser(ALICE, BOB);
+
+        verify(userStatsRepository).adjustFollowCounts(ALICE, BOB, 1);
+        verify(publisher).publishEvent(any(NewFollowerEvent.class));
+        verify(outboxPublisher).publish(any(NewFollowerEvent.class));
+    }
+
+    @Test
+    void followUser_twice_isBadRequest() {
+        when(followRepository.insertFollow(ALICE, BOB)).thenReturn(0);
+        when(userRepository.existsById(BOB)).thenReturn(true);
+
+        HttpStatusException ex = assertThrows(HttpStatusException.class, () -> followService.followUser(ALICE, BOB));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verifyNoInteractions(userStatsRepository, publisher, outboxPublisher);
+    }
+
+    @Test
+    void followUser_self_isBadRequest() {
+        HttpStatusException ex = assertThrows(HttpStatusException.class, () -> followService.followUser(ALICE, ALICE));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    void followUser_unknownTarget_isNotFound() {
+        // INSERT IGNORE swallows the foreign key error, so the insert just reports no row
+        when(followRepository.insertFollow(ALICE, 99L)).thenReturn(0);
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> followService.followUser(ALICE, 99L));
+        verifyNoInteractions(userStatsRepository);
+    }
+
+    @Test
+    void unfollowUser_deletesEdgeAndMovesCounters() {
+        when(followRepository.deleteFollow(ALICE, BOB)).thenReturn(1);
+
+        followService.unfollowUser(ALICE, BOB);
+
+        verify(userStatsRepository).adjustFollowCounts(ALICE, BOB, -1);
+        verify(timelineService).onUnfollow(ALICE, BOB);
+        verify(publisher).publishEvent(any(UnfollowedEvent.class));
+    }
+
+    @Test
+    void unfollowUser_notFollowing_isANoOp() {
+        when(followRepository.deleteFollow(ALICE, BOB)).thenReturn(0);
+        when(userRepository.existsById(BOB)).thenReturn(true);
+
+        followService.unfollowUser(ALICE, BOB);
+
+        verifyNoInteractions(userStatsRepository, timelineService, publisher);
+    }
+
+    @Test
+    void unfollowUser_unknownTarget_isNotFound() {
+        when(followRepository.deleteFollow(ALICE, 99L)).thenReturn(0);
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> followService.unfollowUser(ALICE, 99L));
+    }
+
+    @Test
+    void toggleFollow_followBack_isFriend() {
+        // only bob -> alice exists yet
+        when(followRepository.findFollowDirections(ALICE, BOB)).thenReturn(List.of(BOB));
+        when(followRepository.insertFollow(ALICE, BOB)).thenReturn(1);
+
+        Map<String, Object> result = followService.toggleFollow(ALICE, BOB);
+
+        assertEquals(true, result.get("followed"));
+        assertEquals(true, result.get("isFriend"));
+        verify(followRepository).insertFollow(ALICE, BOB);
+    }
+
+    @Test
+    void toggleFollow_withoutFollowBack_isNotFriend() {
+        when(followRepository.findFollowDirections(ALICE, BOB)).thenReturn(List.of());
+        when(followRepository.insertFollow(ALICE, BOB)).thenReturn(1);
+
+        Map<String, Object> result = followService.toggleFollow(ALICE, BOB);
+
+        assertEquals(true, result.get("followed"));
+        assertEquals(false, result.get("isFriend"));
+    }
+
+    @Test
+    void toggleFollow_whenFollowing_unfollows() {
+        when(followRepository.findFollowDirections(ALICE, BOB)).thenReturn(List.of(ALICE, BOB));
+        when(followRepository.deleteFollow(ALICE, BOB)).thenReturn(1);
+
+        Map<String, Object> result = followService.toggleFollow(ALICE, BOB);
+
+        assertEquals(false, result.get("followed"));
+        assertEquals(false, result.get("isFriend"));
+        verify(followRepository, never()).insertFollow(any(), any());
+    }
+
+    @Test
+    void toggleFollow_self_isBadRequest() {
+        HttpStatusException ex = assertThrows(HttpStatusException.class, () -> followService.toggleFollow(ALICE, ALICE));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    }
+
+    private record Row(Long followId, Long userId) implements FollowListProjection {
+        public Long getFollowId() { return followId; }
+        public LocalDateTime getFollowedAt() { return LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(followId); }
+        public Long getUserId() { return userId; }
+        public String getUsername() { return "user" + userId; }
+        public String getFullname() { return "User " + userId; }
+        public String getAvatarPath() { return null; }
+    }
+
+    private static List<Long> ids(CursorPageResponse<FollowUserDTO> page) {
+        return page.getContent().stream().map(FollowUserDTO::getId).toList();
+    }
+
+    @Test
+    void getFollowersPage_pagesByFollowIdUntilTheLastRow() {
+        when(userRepository.existsById(BOB)).thenReturn(true);
+        when(socialGraphIndex.followedAmong(eq(ALICE), any())).thenReturn(Optional.of(Set.of()));
+        // newest follow first; the third row is the look-ahead
+        when(followRepository.findFollowersFirstPage(BOB, Limit.of(3)))
+                .thenReturn(List.of(new Row(30L, 13L), new Row(20L, 12L), new Row(10L, 11L)));
+
+        CursorPageResponse<FollowUserDTO> first = followService.getFollowersPage(BOB, ALICE, null, 2);
+
+        assertEquals(List.of(13L, 12L), ids(first));
+        assertTrue(first.isHasNext());
+        assertEquals(CursorCodec.encodeId(20L), first.getNextCursor());
+
+        when(followRepository.findFollowersBefore(BOB, 20L, Limit.of(3))).thenReturn(List.of(new Row(10L, 11L)));
+
+        CursorPageResponse<FollowUserDTO> second = followService.getFollowersPage(BOB, ALICE, first.getNextCursor(), 2);
+
+        assertEquals(List.of(11L), ids(second));
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getFollowingPage_marksAccountsTheViewerFollows() {
+        when(userRepository.existsById(BOB)).thenReturn(true);
+        when(followRepository.findFollowingFirstPage(BOB, Limit.of(11)))
+                .thenReturn(List.of(new Row(7L, 13L), new Row(6L, 12L)));
+        when(socialGraphIndex.followedAmong(ALICE, List.of(13L, 12L))).thenReturn(Optional.of(Set.of(12L)));
+
+        CursorPageResponse<FollowUserDTO> page = followService.getFollowingPage(BOB, ALICE, null, 10);
+
+        assertFalse(page.getContent().get(0).isFollowedByMe());
+        assertTrue(page.getContent().get(1).isFollowedByMe());
+        verify(followRepository, never()).findFollowedIdsAmong(any(), any());
+    }
+
+    @Test
+    void followFlags_fallBackToTheQueryWhenTheIndexIsUnavailable() {
+        when(userRepository.existsById(BOB)).thenReturn(true);
+        when(followRepository.findFollowersFirstPage(BOB, Limit.of(11)))
+                .thenReturn(List.of(new Row(7L, 13L), new Row(6L, 12L)));
+        when(socialGraphIndex.followedAmong(ALICE, List.of(13L, 12L))).thenReturn(Optional.empty());
+        when(followRepository.findFollowedIdsAmong(ALICE, List.of(13L, 12L))).thenReturn(Set.of(13L));
+
+        CursorPageResponse<FollowUserDTO> page = followService.getFollowersPage(BOB, ALICE, null, 10);
+
+        assertTrue(page.getContent().get(0).isFollowedByMe());
+        assertFalse(page.getContent().get(1).isFollowedByMe());
+    }
+
+    @Test
+    void emptyPage_skipsTheFollowLookup() {
+        when(userRepository.existsById(BOB)).thenReturn(true);
+        when(followRepository.findFollowersFirstPage(BOB, Limit.of(11))).thenReturn(List.of());
+
+        CursorPageResponse<FollowUserDTO> page = followService.getFollowersPage(BOB, ALICE, null, 10);
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+        verifyNoInteractions(socialGraphIndex);
+    }
+
+    @Test
+    void followPages_unknownUser_isNotFound() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> followService.getFollowersPage(99L, ALICE, null, 10));
+        assertThrows(ResourceNotFoundException.class, () -> followService.getFollowingPage(99L, ALICE, null, 10));
+    }
+
+    @Test
+    void followPages_malformedCursor_isBadRequest() {
+        when(userRepository.existsById(BOB)).thenReturn(true);
+
+        HttpStatusException ex = assertThrows(HttpStatusException.class,
+                () -> followService.getFollowingPage(BOB, ALICE, "%%%", 10));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    }
+}
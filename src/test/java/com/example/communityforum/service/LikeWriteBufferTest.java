@@ -0,0 +1,218 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.events.LikeToggledEvent;
+import com.example.communityforum.outbox.OutboxPublisher;
+import com.example.communityforum.persistence.EntityCacheEvictor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class LikeWriteBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private EntityCacheEvictor cacheEvictor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LikeWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // runs the callback inline; a thrown exception plays the part of a rollback
+        TransactionTemplate transactionTemplate = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+        buffer = new LikeWriteBuffer(jdbcTemplate, transactionTemplate, outboxPublisher, cacheEvictor, meterRegistry, 4);
+        batchReturns("INSERT", 1);
+        batchReturns("DELETE", 1);
+        batchReturns("UPDATE", 1);
+    }
+
+    @Test
+    void toggle_flipsPersistedStateAndTracksDelta() {
+        assertTrue(buffer.toggle(1L, 10L, 99L, () -> false));
+
+        assertEquals(Optional.of(true), buffer.pendingState(1L, 10L));
+        assertEquals(1L, buffer.pendingDelta(10L));
+    }
+
+    @Test
+    void bufferedToggle_skipsDatabaseLookup() {
+        assertFalse(buffer.toggle(1L, 10L, 99L, () -> true));
+
+        assertTrue(buffer.toggle(1L, 10L, 99L, () -> fail("state is already buffered")));
+        assertEquals(0L, buffer.pendingDelta(10L));
+    }
+
+    @Test
+    void toggleBackToPersistedState_leavesNothingPending() {
+        buffer.toggle(1L, 10L, 99L, () -> false);
+        buffer.toggle(1L, 10L, 99L, () -> false);
+
+        assertEquals(0L, buffer.pendingDelta(10L));
+        assertTrue(buffer.toggle(1L, 10L, 99L, () -> false)); // looked up again
+    }
+
+    @Test
+    void set_isIdempotent() {
+        assertTrue(buffer.set(1L, 10L, 99L, true, () -> false));
+        assertFalse(buffer.set(1L, 10L, 99L, true, () -> false));
+        assertFalse(buffer.set(2L, 10L, 99L, false, () -> false)); // already not liked
+
+        assertEquals(1L, buffer.pendingDelta(10L));
+    }
+
+    @Test
+    void mergeLikedPostIds_overlaysPendingIntents() {
+        buffer.toggle(1L, 10L, 99L, () -> false); // like
+        buffer.toggle(1L, 11L, 99L, () -> true);  // unlike
+        buffer.toggle(2L, 12L, 99L, () -> false); // another user
+
+        Set<Long> merged = buffer.mergeLikedPostIds(1L, List.of(10L, 11L, 12L), Set.of(11L));
+
+        assertEquals(Set.of(10L), merged);
+    }
+
+    @Test
+    void flush_writesBatchAndHandsOverToDatabase() {
+        buffer.toggle(1L, 10L, 99L, () -> false); // like
+        buffer.toggle(2L, 11L, 99L, () -> true);  // unlike
+
+        buffer.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), argThat(args -> args.size() == 1), anyInt(), any());
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE"), argThat(args -> args.size() == 1), anyInt(), any());
+        assertEquals(Optional.empty(), buffer.pendingState(1L, 10L));
+        assertEquals(0L, buffer.pendingDelta(10L));
+        assertEquals(0L, buffer.pendingDelta(11L));
+        verify(cacheEvictor).evict(any(), eq(10L));
+        assertEquals(1, publishedLikes().size());
+    }
+
+    @Test
+    void flush_ignoredDuplicateInsert_publishesNoEvent() {
+        batchReturns("INSERT", 0); // INSERT IGNORE hit an existing row
+
+        buffer.toggle(1L, 10L, 99L, () -> false);
+        buffer.flush();
+
+        assertTrue(publishedLikes().isEmpty());
+        assertEquals(0L, buffer.pendingDelta(10L));
+    }
+
+    @Test
+    void failedFlush_requeuesBatch() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenAnswer(inv -> counts(inv.getArgument(1), 1));
+
+        buffer.toggle(1L, 10L, 99L, () -> false);
+        buffer.flush();
+
+        assertEquals(Optional.of(true), buffer.pendingState(1L, 10L));
+        assertEquals(1L, buffer.pendingDelta(10L));
+        verifyNoInteractions(outboxPublisher);
+
+        buffer.flush(); // retried on the next run
+        assertEquals(Optional.empty(), buffer.pendingState(1L, 10L));
+        assertEquals(0L, buffer.pendingDelta(10L));
+    }
+
+    @Test
+    void failedFlush_mergesWithIntentBufferedMeanwhile() {
+        // the user unlikes while the like is being written, then the write fails
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any()))
+                .thenAnswer(inv -> {
+                    assertFalse(buffer.toggle(1L, 10L, 99L, () -> fail("in-flight state is buffered")));
+                    throw new QueryTimeoutException("timeout");
+                });
+
+        buffer.toggle(1L, 10L, 99L, () -> false);
+        buffer.flush();
+
+        // like + unlike on top of "not liked" nets out to nothing to write
+        assertEquals(Optional.empty(), buffer.pendingState(1L, 10L));
+        assertEquals(0L, buffer.pendingDelta(10L));
+    }
+
+    @Test
+    void flush_withoutPerRowCounts_failsAndRequeues() {
+        batchReturns("INSERT", Statement.SUCCESS_NO_INFO);
+
+        buffer.toggle(1L, 10L, 99L, () -> false);
+        buffer.flush();
+
+        assertEquals(Optional.of(true), buffer.pendingState(1L, 10L));
+        assertEquals(1L, buffer.pendingDelta(10L));
+        verifyNoInteractions(outboxPublisher);
+        assertEquals(1.0, meterRegistry.counter("likes.buffer.flush.failures").count());
+    }
+
+    @Test
+    void fullBuffer_writesNewPairsThrough() {
+        ReflectionTestUtils.setField(buffer, "maxIntents", 1);
+
+        buffer.toggle(1L, 10L, 99L, () -> false); // buffered
+        assertEquals(1.0, meterRegistry.get("likes.buffer.intents").gauge().value());
+
+        assertTrue(buffer.toggle(2L, 10L, 99L, () -> false)); // written directly
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), argThat(args -> args.size() == 1), anyInt(), any());
+        assertEquals(Optional.empty(), buffer.pendingState(2L, 10L));
+        assertEquals(1L, buffer.pendingDelta(10L));
+        assertEquals(1.0, meterRegistry.get("likes.buffer.intents").gauge().value());
+        assertEquals(1, publishedLikes().size());
+
+        buffer.flush();
+        assertEquals(0.0, meterRegistry.get("likes.buffer.intents").gauge().value());
+    }
+
+    private void batchReturns(String sqlPrefix, int rowCount) {
+        when(jdbcTemplate.batchUpdate(startsWith(sqlPrefix), anyCollection(), anyInt(), any()))
+                .thenAnswer(inv -> counts(inv.getArgument(1), rowCount));
+    }
+
+    private static int[][] counts(Collection<?> args, int rowCount) {
+        int[] chunk = new int[args.size()];
+        Arrays.fill(chunk, rowCount);
+        return new int[][]{chunk};
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LikeToggledEvent> publishedLikes() {
+        ArgumentCaptor<Collection<?>> events = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxPublisher).publishAll(events.capture());
+        return (List<LikeToggledEvent>) events.getValue();
+    }
+}
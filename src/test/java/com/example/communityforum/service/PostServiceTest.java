@@ -0,0 +1,114 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.dto.post.PostRequestDTO;
+import com.example.communityforum.mapper.PostMapper;
+import com.example.communityforum.persistence.entity.Post;
+import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.*;
+import com.example.communityforum.security.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PostServiceTest {
+
+    @Mock private PostRepository postRepository;
+    @Mock private SecurityUtils securityUtils;
+    @Mock private LikeRepository likeRepository;
+    @Mock private LikeWriteBuffer likeWriteBuffer;
+    @Mock private TagRepository tagRepository;
+    @Mock private PostMapper postMapper;
+    @Mock private UserRepository userRepository;
+    @Mock private UserStatsRepository userStatsRepository;
+    @Mock private TimelineService timelineService;
+    @Mock private ApplicationEventPublisher publisher;
+
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        TransactionTemplate transactionTemplate = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+        postService = new PostService(postRepository, securityUtils, likeRepository, likeWriteBuffer, tagRepository,
+                postMapper, userRepository, userStatsRepository, timelineService, publisher, transactionTemplate);
+
+        User author = new User();
+        author.setId(1L);
+        when(securityUtils.getCurrentUser()).thenReturn(author);
+    }
+
+    private static PostRequestDTO request(String title) {
+        PostRequestDTO request = new PostRequestDTO();
+        request.setTitle(title);
+        request.setContent("content");
+        return request;
+    }
+
+    private List<String> savedSlugs() {
+        ArgumentCaptor<Post> saved = ArgumentCaptor.forClass(Post.class);
+        verify(postRepository, atLeastOnce()).save(saved.capture());
+        return saved.getAllValues().stream().map(Post::getSlug).toList();
+    }
+
+    @Test
+    void addPost_usesFreeSlugAsIs() {
+        when(postRepository.findMaxSlugSuffix("hello")).thenReturn(-1L);
+
+        postService.addPost(request("Hello"));
+
+        assertEquals(List.of("hello"), savedSlugs());
+    }
+
+    @Test
+    void addPost_takesNextNumericSuffix() {
+        when(postRepository.findMaxSlugSuffix("hello")).thenReturn(4L);
+
+        postService.addPost(request("Hello"));
+
+        assertEquals(List.of("hello-5"), savedSlugs());
+    }
+
+    @Test
+    void addPost_lastAttemptFallsBackToLetterSuffix() {
+        when(postRepository.findMaxSlugSuffix("hello")).thenReturn(7L);
+        when(postRepository.save(any(Post.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate slug"))
+                .thenThrow(new DataIntegrityViolationException("duplicate slug"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        postService.addPost(request("Hello"));
+
+        List<String> slugs = savedSlugs();
+        assertEquals(3, slugs.size());
+        assertEquals("hello-8", slugs.get(0));
+        assertEquals("hello-8", slugs.get(1));
+        assertTrue(slugs.get(2).matches("hello-[a-z]{8}"), slugs.get(2));
+        verify(postRepository, times(2)).findMaxSlugSuffix("hello");
+    }
+
+    @Test
+    void addPost_givesUpAfterLastAttempt() {
+        when(postRepository.findMaxSlugSuffix("hello")).thenReturn(0L);
+        when(postRepository.save(any(Post.class))).thenThrow(new DataIntegrityViolationException("duplicate slug"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> postService.addPost(request("Hello")));
+        assertEquals(3, savedSlugs().size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.dto.post.UserPostsResponseDTO;
+import com.example.communityforum.dto.user.ProfileOverviewDTO;
+import com.example.communityforum.exception.ResourceNotFoundException;
+import com.example.communityforum.graph.SocialGraphIndex;
+import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.entity.UserStats;
+import com.example.communityforum.persistence.repository.*;
+import com.example.communityforum.security.SecurityUtils;
+import com.example.communityforum.security.TokenVersionCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProfileServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private PostRepository postRepository;
+    @Mock private FileStorageService fileStorageService;
+    @Mock private LikeRepository likeRepository;
+    @Mock private FollowRepository followRepository;
+    @Mock private SecurityUtils securityUtils;
+    @Mock private TokenVersionCache tokenVersionCache;
+    @Mock private SocialGraphIndex socialGraphIndex;
+    @Mock private UserStatsRepository userStatsRepository;
+    @Mock private PostService postService;
+
+    private ExecutorService executor;
+    private ProfileService profileService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(3);
+        profileService = new ProfileService(userRepository, postRepository, fileStorageService, likeRepository,
+                followRepository, securityUtils, tokenVersionCache, socialGraphIndex, userStatsRepository,
+                postService, executor);
+
+        User author = new User();
+        author.setId(2L);
+        author.setUsername("bob");
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(author));
+        when(securityUtils.getCurrentUserId()).thenReturn(1L);
+        when(socialGraphIndex.follows(1L, 2L)).thenReturn(Optional.of(true));
+        when(socialGraphIndex.isFriend(1L, 2L)).thenReturn(Optional.of(false));
+        when(userStatsRepository.findById(2L)).thenReturn(Optional.of(
+                UserStats.builder().userId(2L).followingCount(4).followerCount(7).postCount(1).receivedLikeCount(3).build()));
+        when(postService.getPostsByUserId(eq(2L), eq(1), anyInt()))
+                .thenReturn(UserPostsResponseDTO.builder().posts(List.of()).page(1).totalPosts(1).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getProfileOverview_combinesTheParallelLookups() {
+        ProfileOverviewDTO overview = profileService.getProfileOverview("bob", 500);
+
+        assertEquals("bob", overview.getProfile().getUsername());
+        assertTrue(overview.getProfile().getFollowed());
+        assertFalse(overview.getProfile().getIsFriend());
+        assertEquals(7, overview.getStats().getFollowerCount());
+        assertEquals(1, overview.getTotalPosts());
+        assertEquals(50, overview.getPageSize()); // clamped to MAX_OVERVIEW_POSTS
+        verify(postService).getPostsByUserId(2L, 1, 50);
+    }
+
+    @Test
+    void getProfileOverview_unknownUser_throwsBeforeForking() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> profileService.getProfileOverview("ghost", 10));
+        verifyNoInteractions(postService, userStatsRepository, socialGraphIndex);
+    }
+
+    @Test
+    void getProfileOverview_rethrowsTheTaskExceptionUnwrapped() {
+        when(postService.getPostsByUserId(eq(2L), eq(1), anyInt()))
+                .thenThrow(new ResourceNotFoundException("User", 2L));
+
+        // not a CompletionException, so GlobalExceptionHandler still maps it to 404
+        assertThrows(ResourceNotFoundException.class, () -> profileService.getProfileOverview("bob", 10));
+    }
+}
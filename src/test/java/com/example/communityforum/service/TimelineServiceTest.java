@@ -0,0 +1,152 @@
+package com.example.communityforum.service;
+
+import com.example.communityforum.events.PostPublishedEvent;
+import com.example.communityforum.graph.SocialGraphIndex;
+import com.example.communityforum.persistence.entity.Post;
+import com.example.communityforum.persistence.entity.User;
+import com.example.communityforum.persistence.repository.FollowRepository;
+import com.example.communityforum.persistence.repository.PostRepository;
+import com.example.communityforum.persistence.repository.TimelineRepository;
+import com.example.communityforum.persistence.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TimelineServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 10, 0);
+    private static final Long VIEWER = 1L;
+    private static final Long AUTHOR = 9L;
+
+    @Mock private TimelineRepository timelineRepository;
+    @Mock private FollowRepository followRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private PostRepository postRepository;
+    @Mock private SocialGraphIndex socialGraphIndex;
+
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        timelineService = new TimelineService(timelineRepository, followRepository, userRepository,
+                postRepository, socialGraphIndex);
+        ReflectionTestUtils.setField(timelineService, "maxFanoutFollowers", 100L);
+        ReflectionTestUtils.setField(timelineService, "clearRatio", 0.8);
+        ReflectionTestUtils.setField(timelineService, "backfillSize", 50);
+        ReflectionTestUtils.setField(timelineService, "backfillChunkSize", 2);
+    }
+
+    // post id n is created n minutes after BASE, so feed order is descending id
+    private static Post post(long id) {
+        return Post.builder().id(id).createdAt(BASE.plusMinutes(id)).build();
+    }
+
+    private static List<Long> ids(List<Post> posts) {
+        return posts.stream().map(Post::getId).toList();
+    }
+
+    @Test
+    void loadFollowingPage_mergesHighFanoutPostsAndDropsDuplicates() {
+        when(timelineRepository.findPostIdsFirstPage(VIEWER, Limit.of(3))).thenReturn(List.of(5L, 3L));
+        when(postRepository.findAllById(List.of(5L, 3L))).thenReturn(List.of(post(3), post(5)));
+        when(followRepository.findHighFanoutFollowingIds(VIEWER)).thenReturn(List.of(AUTHOR));
+        // post 3 is both materialized and pulled, as right after the author leaves high-fanout mode
+        when(postRepository.findByAuthorsFirstPage(List.of(AUTHOR), Limit.of(3)))
+                .thenReturn(List.of(post(4), post(3), post(1)));
+
+        List<Post> page = timelineService.loadFollowingPage(VIEWER, null, 3);
+
+        assertEquals(List.of(5L, 4L, 3L), ids(page));
+    }
+
+    @Test
+    void loadFollowingPage_continuesAfterTheCursorOnBothSources() {
+        CursorCodec.TimeIdCursor after = CursorCodec.decodeTimeId(CursorCodec.encode(BASE.plusMinutes(3), 3L));
+        when(timelineRepository.findPostIdsAfter(VIEWER, after.createdAt(), 3L, Limit.of(3))).thenReturn(List.of(2L));
+        when(postRepository.findAllById(List.of(2L))).thenReturn(List.of(post(2)));
+        when(followRepository.findHighFanoutFollowingIds(VIEWER)).thenReturn(List.of(AUTHOR));
+        when(postRepository.findByAuthorsAfter(List.of(AUTHOR), after.createdAt(), 3L, Limit.of(3)))
+                .thenReturn(List.of(post(1)));
+
+        List<Post> page = timelineService.loadFollowingPage(VIEWER, after, 3);
+
+        assertEquals(List.of(2L, 1L), ids(page));
+        verify(timelineRepository, never()).findPostIdsFirstPage(any(), any());
+        verify(postRepository, never()).findByAuthorsFirstPage(any(), any());
+    }
+
+    @Test
+    void loadFollowingPage_withoutHighFanoutAuthors_readsOnlyTheTimeline() {
+        when(timelineRepository.findPostIdsFirstPage(VIEWER, Limit.of(2))).thenReturn(List.of(7L, 6L));
+        when(postRepository.findAllById(List.of(7L, 6L))).thenReturn(List.of(post(6), post(7)));
+        when(followRepository.findHighFanoutFollowingIds(VIEWER)).thenReturn(List.of());
+
+        List<Post> page = timelineService.loadFollowingPage(VIEWER, null, 2);
+
+        assertEquals(List.of(7L, 6L), ids(page));
+        verify(postRepository, never()).findByAuthorsFirstPage(any(), any());
+    }
+
+    private void givenAuthor(boolean highFanout, long followers) {
+        User author = new User();
+        author.setId(AUTHOR);
+        author.setHighFanout(highFanout);
+        when(userRepository.findById(AUTHOR)).thenReturn(Optional.of(author));
+        when(socialGraphIndex.followerCount(AUTHOR)).thenReturn(OptionalLong.of(followers));
+    }
+
+    private static PostPublishedEvent published() {
+        return PostPublishedEvent.builder().postId(42L).authorId(AUTHOR).createdAt(BASE).build();
+    }
+
+    @Test
+    void fanOut_setsTheFlagOnlyAboveTheThreshold() {
+        givenAuthor(false, 100);
+        timelineService.fanOut(published());
+        verify(userRepository, never()).updateHighFanout(any(), anyBoolean());
+        verify(timelineRepository).fanOut(42L, AUTHOR, BASE);
+
+        givenAuthor(false, 101);
+        timelineService.fanOut(published());
+        verify(userRepository).updateHighFanout(AUTHOR, true);
+        verifyNoMoreInteractions(timelineRepository);
+    }
+
+    @Test
+    void fanOut_keepsTheFlagInsideTheHysteresisBand() {
+        givenAuthor(true, 80);
+
+        timelineService.fanOut(published());
+
+        verify(userRepository, never()).updateHighFanout(any(), anyBoolean());
+        verifyNoInteractions(timelineRepository);
+    }
+
+    @Test
+    void fanOut_clearingTheFlagBackfillsFollowersInIdChunks() {
+        givenAuthor(true, 79);
+        when(followRepository.findFollowerIdsAfter(AUTHOR, 0L, Limit.of(2))).thenReturn(List.of(11L, 12L));
+        when(followRepository.findFollowerIdsAfter(AUTHOR, 12L, Limit.of(2))).thenReturn(List.of(15L));
+        when(followRepository.findFollowerIdsAfter(AUTHOR, 15L, Limit.of(2))).thenReturn(List.of());
+
+        timelineService.fanOut(published());
+
+        verify(userRepository).updateHighFanout(AUTHOR, false);
+        verify(timelineRepository).backfillFollowers(AUTHOR, 11L, 12L, 50);
+        verify(timelineRepository).backfillFollowers(AUTHOR, 15L, 15L, 50);
+        verify(timelineRepository).fanOut(42L, AUTHOR, BASE);
+    }
+}
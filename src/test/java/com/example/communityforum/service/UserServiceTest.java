@@ -6,6 +6,7 @@ import com.example.communityforum.exception.DuplicateResourceException;
 import com.example.communityforum.exception.ResourceNotFoundException;
 import com.example.communityforum.persistence.entity.User;
 import com.example.communityforum.persistence.repository.UserRepository;
+import com.example.communityforum.persistence.repository.UserStatsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -23,6 +24,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -58,6 +62,7 @@ class UserServiceTest {
         assertEquals("alice", response.getUsername());
         assertEquals("alice@example.com", response.getEmail());
         verify(userRepository).save(any(User.class));
+        verify(userStatsRepository).seed(1L);
     }
 
     @Test